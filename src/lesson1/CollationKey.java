@@ -0,0 +1,85 @@
+package lesson1;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * Ключ сравнения строки в порядке адресов JavaTasks: по кодам символов, но 'ё' и 'Ё' стоят сразу после 'е' и 'Е'.
+ * <p>
+ * Каждый символ c получает вес 2c, а 'ё' и 'Ё' -- веса 2'е' + 1 и 2'Е' + 1, то есть оказываются
+ * между 'е' и 'ж' (соответственно 'Е' и 'Ж'). Веса записываются по три байта, поэтому ключи
+ * сравниваются как беззнаковые массивы байтов, а строку достаточно просмотреть один раз при построении ключа.
+ * <p>
+ * Ключ занимает три байта на символ сверх самой строки, поэтому для больших наборов строк ключи стоит строить
+ * только на время сортировки. Статические compare для строк сравнивают те же веса без построения ключей.
+ */
+public final class CollationKey implements Comparable<CollationKey> {
+
+    private final String value;
+    private final byte[] key;
+
+    public CollationKey(String value) {
+        this.value = value;
+        this.key = keyOf(value);
+    }
+
+    public String value() {
+        return value;
+    }
+
+    private static int weight(char c) {
+        if (c == 'ё') return 2 * 'е' + 1;
+        if (c == 'Ё') return 2 * 'Е' + 1;
+        return 2 * c;
+    }
+
+    public static byte[] keyOf(String s) {
+        byte[] key = new byte[3 * s.length()];
+        for (int i = 0, j = 0; i < s.length(); i++, j += 3) {
+            int weight = weight(s.charAt(i));
+            key[j] = (byte) (weight >>> 16);
+            key[j + 1] = (byte) (weight >>> 8);
+            key[j + 2] = (byte) weight;
+        }
+        return key;
+    }
+
+    public static int compare(byte[] key1, byte[] key2) {
+        return Arrays.compareUnsigned(key1, key2);
+    }
+
+    // Сравнение s1[from1, to1) и s2[from2, to2) в том же порядке, что и их ключи
+    public static int compare(CharSequence s1, int from1, int to1, CharSequence s2, int from2, int to2) {
+        for (; from1 < to1 && from2 < to2; from1++, from2++) {
+            char c1 = s1.charAt(from1), c2 = s2.charAt(from2);
+            if (c1 != c2) return weight(c1) - weight(c2);
+        }
+        return (to1 - from1) - (to2 - from2);
+    }
+
+    public static int compare(CharSequence s1, CharSequence s2) {
+        return compare(s1, 0, s1.length(), s2, 0, s2.length());
+    }
+
+    @Override
+    public int compareTo(@NotNull CollationKey other) {
+        return compare(key, other.key);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof CollationKey other)) return false;
+        return value.equals(other.value);
+    }
+
+    @Override
+    public int hashCode() {
+        return value.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return value;
+    }
+}
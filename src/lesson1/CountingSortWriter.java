@@ -0,0 +1,80 @@
+package lesson1;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.IntFunction;
+
+/**
+ * Запись результата сортировки подсчётом.
+ * <p>
+ * Текст каждой корзины вместе с переводом строки один раз переводится в байты UTF-8,
+ * затем для каждой корзины он повторяется count[i] раз в прямых буферах,
+ * которые сбрасываются в FileChannel одной групповой записью.
+ */
+public class CountingSortWriter {
+
+    private static final int BUFFER_SIZE = 1 << 18;
+    private static final int BUFFER_COUNT = 4;
+
+    private final byte[][] rendered;
+
+    public CountingSortWriter(int slots, IntFunction<String> render) {
+        byte[] separator = System.getProperty("line.separator").getBytes(StandardCharsets.UTF_8);
+        rendered = new byte[slots][];
+        for (int i = 0; i < slots; i++) {
+            byte[] value = render.apply(i).getBytes(StandardCharsets.UTF_8);
+            byte[] line = new byte[value.length + separator.length];
+            System.arraycopy(value, 0, line, 0, value.length);
+            System.arraycopy(separator, 0, line, value.length, separator.length);
+            rendered[i] = line;
+        }
+    }
+
+    // Оценка: n - число строк, k - число корзин
+    //         Ресурсоемкость: O(1), BUFFER_COUNT * BUFFER_SIZE байт
+    //         Быстродействие: O(n + k)
+    public void write(int[] count, String outputName) throws IOException {
+        if (count.length != rendered.length) throw new IllegalArgumentException("Expected " + rendered.length + " slots");
+
+        ByteBuffer[] buffers = new ByteBuffer[BUFFER_COUNT];
+        for (int i = 0; i < BUFFER_COUNT; i++) {
+            buffers[i] = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        }
+
+        try (FileChannel channel = FileChannel.open(Path.of(outputName),
+                StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            int current = 0;
+            for (int i = 0; i < count.length; i++) {
+                byte[] line = rendered[i];
+                for (int amount = count[i]; amount > 0; amount--) {
+                    if (buffers[current].remaining() < line.length) {
+                        if (++current == BUFFER_COUNT) {
+                            flush(channel, buffers, BUFFER_COUNT);
+                            current = 0;
+                        }
+                    }
+                    buffers[current].put(line);
+                }
+            }
+            flush(channel, buffers, current + 1);
+        }
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer[] buffers, int used) throws IOException {
+        long total = 0;
+        for (int i = 0; i < used; i++) {
+            buffers[i].flip();
+            total += buffers[i].remaining();
+        }
+        while (total > 0) {
+            total -= channel.write(buffers, 0, used);
+        }
+        for (int i = 0; i < used; i++) {
+            buffers[i].clear();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package lesson1;
+
+/**
+ * Ассоциативный массив int -> int с открытой адресацией и линейным пробированием
+ * без упаковки ключей и значений в объекты (см. OpenAddressing).
+ */
+class IntIntHashMap {
+
+    private int[] keys;
+    private int[] values;
+    private int size = 0;
+    // ключ 0 обозначает пустую ячейку, его значение хранится здесь
+    private boolean hasZeroKey = false;
+    private int zeroValue;
+
+    IntIntHashMap(int expectedSize) {
+        int capacity = OpenAddressing.capacityFor(expectedSize);
+        keys = new int[capacity];
+        values = new int[capacity];
+    }
+
+    int get(int key, int missing) {
+        if (key == 0) return hasZeroKey ? zeroValue : missing;
+        int mask = keys.length - 1;
+        for (int i = OpenAddressing.index(key, mask); keys[i] != 0; i = (i + 1) & mask) {
+            if (keys[i] == key) return values[i];
+        }
+        return missing;
+    }
+
+    // Увеличивает значение по ключу на единицу (отсутствующее значение считается нулём) и возвращает результат
+    int increment(int key) {
+        if (key == 0) {
+            if (!hasZeroKey) zeroValue = 0;
+            hasZeroKey = true;
+            return ++zeroValue;
+        }
+        int mask = keys.length - 1;
+        int i = OpenAddressing.index(key, mask);
+        for (; keys[i] != 0; i = (i + 1) & mask) {
+            if (keys[i] == key) return ++values[i];
+        }
+        keys[i] = key;
+        values[i] = 1;
+        if (++size > OpenAddressing.maxSize(keys.length)) grow();
+        return 1;
+    }
+
+    private void grow() {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        int capacity = OpenAddressing.capacityFor(size);
+        keys = new int[capacity];
+        values = new int[capacity];
+        int mask = capacity - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldKeys[j] == 0) continue;
+            int i = OpenAddressing.index(oldKeys[j], mask);
+            while (keys[i] != 0) i = (i + 1) & mask;
+            keys[i] = oldKeys[j];
+            values[i] = oldValues[j];
+        }
+    }
+}
@@ -1,14 +1,23 @@
 package lesson1;
 
-import kotlin.NotImplementedError;
 import org.jetbrains.annotations.NotNull;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.text.DateFormat;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.regex.Pattern;
 
 import static java.lang.Math.*;
 
@@ -45,12 +54,93 @@ public class JavaTasks {
      * В случае обнаружения неверного формата файла бросить любое исключение.
      */
 
+    static public void sortTimes(String inputName, String outputName) throws IOException, ParseException {
+        //calendarSortTimes(inputName, outputName);
+        countingSortTimes(inputName, outputName);
+    }
+
+    private static final int SECONDS_IN_DAY = 86400;
+
+    // Оценка: n - число моментов времени
+    //         Ресурсоемкость: O(1), гистограмма на SECONDS_IN_DAY корзин
+    //         Быстродействие: O(n)
+    // Каждая строка разбирается из байтов отображённого в память файла в номер секунды суток.
+    static public void countingSortTimes(String inputName, String outputName) throws IOException, ParseException {
+        int[] timeArray = new int[SECONDS_IN_DAY];
+
+        parseMapped(inputName, (buffer, end) -> countTimes(buffer, 0, end, timeArray));
+
+        TimeWriter.INSTANCE.write(timeArray, outputName);
+    }
+
+    // Разбор строк вида ЧЧ:ММ:СС AM/PM из байтов buffer[from, to) с подсчётом в timeArray.
+    // Как и нестрогий SimpleDateFormat, переполнение полей переносится в старшие разряды по модулю суток,
+    // так 23:12:90 PM соответствует 11:13:30 AM.
+    static void countTimes(ByteBuffer buffer, int from, int to, int[] timeArray) throws ParseException {
+        int pos = from;
+        while (pos < to) {
+            int start = pos;
+            long seconds = 0;
+            for (int field = 0; field < 3; field++) {
+                int value = 0;
+                int digits = 0;
+                while (pos < to && digits < 9) {
+                    int digit = buffer.get(pos) - '0';
+                    if (digit < 0 || digit > 9) break;
+                    value = value * 10 + digit;
+                    digits++;
+                    pos++;
+                }
+                if (digits == 0) throw timeParseError(buffer, start, pos, to);
+                if (field < 2) {
+                    if (pos >= to || buffer.get(pos) != ':') throw timeParseError(buffer, start, pos, to);
+                    pos++;
+                }
+                if (field == 0 && value == 12) value = 0;
+                seconds = seconds * 60 + value;
+            }
+
+            if (pos + 2 >= to || buffer.get(pos) != ' ') throw timeParseError(buffer, start, pos, to);
+            byte half = buffer.get(pos + 1);
+            byte m = buffer.get(pos + 2);
+            if (m != 'M' && m != 'm') throw timeParseError(buffer, start, pos, to);
+            if (half == 'P' || half == 'p') seconds += 12 * 3600;
+            else if (half != 'A' && half != 'a') throw timeParseError(buffer, start, pos, to);
+            pos += 3;
+
+            if (pos < to && buffer.get(pos) == '\r') pos++;
+            if (pos < to) {
+                if (buffer.get(pos) != '\n') throw timeParseError(buffer, start, pos, to);
+                pos++;
+            }
+
+            timeArray[floorMod(seconds, SECONDS_IN_DAY)]++;
+        }
+    }
+
+    private static ParseException timeParseError(ByteBuffer buffer, int start, int pos, int to) {
+        return new ParseException("Unparseable date: \"" + lineAt(buffer, start, to) + "\"", pos - start);
+    }
+
+    // Строки всех SECONDS_IN_DAY корзин строятся при первой сортировке времён, а не при загрузке JavaTasks.
+    private static class TimeWriter {
+        static final CountingSortWriter INSTANCE = new CountingSortWriter(SECONDS_IN_DAY, i -> {
+            int hour = i / 3600;
+            return twoDigits(hour % 12 == 0 ? 12 : hour % 12) + ":" + twoDigits(i / 60 % 60) + ":" +
+                    twoDigits(i % 60) + (hour < 12 ? " AM" : " PM");
+        });
+    }
+
+    private static String twoDigits(int value) {
+        return value < 10 ? "0" + value : String.valueOf(value);
+    }
+
     //Оценка:
     //       Ресурсоемкость: O(n)
     //       Быстродействие: Timsort
     //                       худшее: O(n log(n))
     //                       лучшее: O(n)
-    static public void sortTimes(String inputName, String outputName) throws IOException, ParseException {
+    static public void calendarSortTimes(String inputName, String outputName) throws IOException, ParseException {
         SimpleDateFormat simpleDateFormat = new SimpleDateFormat("hh:mm:ss a");
         File file = new File(inputName);
         BufferedReader br = new BufferedReader(new FileReader(file));
@@ -116,10 +206,7 @@ public class JavaTasks {
         // выполняется только при условии нового адреса (строка 122).
         for (String line; (line = br.readLine()) != null;) {
 
-            // \w не поддерживает русские буквы, также имена не могут содержать 0-9
-            String letter = "[А-ЯЁа-яёA-Za-z-]";
-            String regex = letter + "+ " + letter + "+ - " + letter + "+ \\d+";
-            if (!line.matches(regex))
+            if (!addressLine.matcher(line).matches())
                 throw new IllegalArgumentException(line);
             String[] split = line.split(" - ");
             String[] splitAddress = split[1].split(" ");
@@ -133,27 +220,363 @@ public class JavaTasks {
         }
         br.close();
 
-        // Timsort худшее: O(n log(n))
-        //         лучшее: O(n)
-        for (Address address : addresses.keySet()) {
-            addresses.get(address).sort(comparator);
-        }
-
         OutputStreamWriter writer =
                 new OutputStreamWriter(new FileOutputStream(outputName), StandardCharsets.UTF_8);
 
         // O(n) - запись всех жителей в файл.
+        // Ключи сравнения строятся только для жителей одного дома перед его записью, так что в памяти
+        // одновременно живут ключи одного дома, а не всего города.
+        // Timsort худшее: O(n log(n))
+        //         лучшее: O(n)
         for (var entry : addresses.entrySet()) {
+            List<String> names = entry.getValue();
+            CollationKey[] keys = new CollationKey[names.size()];
+            for (int i = 0; i < keys.length; i++) keys[i] = new CollationKey(names.get(i));
+            Arrays.sort(keys);
             writer.write(entry.getKey() + " - ");
-            for (String name : entry.getValue()) {
-                writer.write(name);
-                if (entry.getValue().indexOf(name) != entry.getValue().size() - 1) writer.write(", ");
+            for (int i = 0; i < keys.length; i++) {
+                if (i != 0) writer.write(", ");
+                writer.write(keys[i].value());
             }
             writer.write(System.getProperty("line.separator"));
         }
         writer.close();
     }
 
+    // \w не поддерживает русские буквы, также имена не могут содержать 0-9
+    private static final String letter = "[А-ЯЁа-яёA-Za-z-]";
+    private static final Pattern addressLine = Pattern.compile(letter + "+ " + letter + "+ - " + letter + "+ \\d+");
+
+    // Словарное кодирование улиц.
+    // Оценка: n - число жителей, m - число адресов, s - число улиц
+    //         Ресурсоемкость: O(n) имён + O(m) примитивных ключей + O(s) улиц
+    //         Быстродействие: O(n log(n)) на сортировку имён внутри домов + O(m log(m)) + O(s log(s))
+    // Каждая улица получает плотный номер в порядке CollationKey, номер улицы и номер дома упаковываются
+    // в один long, жители группируются по нему в LongIntHashMap, так что сортировка адресов -- сортировка long[].
+    // Имена не хранятся отдельными строками: они дописываются в блоки символов NameStore, у жителя остаётся
+    // только int-ссылка на имя. Строки и ключи сравнения имён строятся для одного дома перед его записью.
+    static public void dictionarySortAddresses(String inputName, String outputName) throws IOException {
+        Map<String, Integer> streetIds = new HashMap<>();
+        List<String> streets = new ArrayList<>();
+        LongIntHashMap groupIds = new LongIntHashMap(1024);
+        NameStore names = new NameStore();
+        int residents = 0;
+        int[] nameOf = new int[1024];
+        int[] groupOf = new int[1024];
+        long[] groupKeys = new long[1024];
+
+        try (BufferedReader br = Files.newBufferedReader(Path.of(inputName), StandardCharsets.UTF_8)) {
+            for (String line; (line = br.readLine()) != null; ) {
+                if (!addressLine.matcher(line).matches())
+                    throw new IllegalArgumentException(line);
+                int dash = line.indexOf(" - ");
+                int space = line.lastIndexOf(' ');
+                String street = line.substring(dash + 3, space);
+                Integer streetId = streetIds.get(street);
+                if (streetId == null) {
+                    streetId = streets.size();
+                    streetIds.put(street, streetId);
+                    streets.add(street);
+                }
+                long key = (long) streetId << 32 | Integer.parseInt(line.substring(space + 1));
+
+                int group = groupIds.get(key, -1);
+                if (group == -1) {
+                    group = groupIds.size();
+                    groupIds.put(key, group);
+                    if (group == groupKeys.length) groupKeys = Arrays.copyOf(groupKeys, group * 2);
+                    groupKeys[group] = key;
+                }
+                if (residents == groupOf.length) {
+                    groupOf = Arrays.copyOf(groupOf, residents * 2);
+                    nameOf = Arrays.copyOf(nameOf, residents * 2);
+                }
+                groupOf[residents] = group;
+                nameOf[residents++] = names.add(line, 0, dash);
+            }
+        }
+
+        // Номера улиц в порядке их сравнения
+        CollationKey[] streetKeys = new CollationKey[streets.size()];
+        for (int i = 0; i < streetKeys.length; i++) streetKeys[i] = new CollationKey(streets.get(i));
+        Integer[] order = new Integer[streetKeys.length];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> streetKeys[a].compareTo(streetKeys[b]));
+        int[] rank = new int[order.length];
+        for (int i = 0; i < order.length; i++) rank[order[i]] = i;
+
+        int groups = groupIds.size();
+        LongIntHashMap sortedGroupIds = new LongIntHashMap(groups);
+        long[] sortedKeys = new long[groups];
+        for (int group = 0; group < groups; group++) {
+            long key = (long) rank[(int) (groupKeys[group] >>> 32)] << 32 | (groupKeys[group] & 0xFFFFFFFFL);
+            sortedKeys[group] = key;
+            sortedGroupIds.put(key, group);
+        }
+        Arrays.sort(sortedKeys);
+
+        // Раскладка жителей по домам подсчётом
+        int[] start = new int[groups + 1];
+        for (int i = 0; i < residents; i++) start[groupOf[i] + 1]++;
+        for (int group = 0; group < groups; group++) start[group + 1] += start[group];
+        int[] position = Arrays.copyOf(start, groups);
+        int[] groupNames = new int[residents];
+        for (int i = 0; i < residents; i++) groupNames[position[groupOf[i]]++] = nameOf[i];
+        groupOf = null;
+        nameOf = null;
+
+        try (BufferedWriter writer = Files.newBufferedWriter(Path.of(outputName), StandardCharsets.UTF_8)) {
+            for (long key : sortedKeys) {
+                int group = sortedGroupIds.get(key, -1);
+                CollationKey[] keys = new CollationKey[start[group + 1] - start[group]];
+                for (int i = 0; i < keys.length; i++) keys[i] = new CollationKey(names.get(groupNames[start[group] + i]));
+                Arrays.sort(keys);
+                writer.write(streets.get(order[(int) (key >>> 32)]) + " " + (int) key + " - ");
+                for (int i = 0; i < keys.length; i++) {
+                    if (i != 0) writer.write(", ");
+                    writer.write(keys[i].value());
+                }
+                writer.write(System.getProperty("line.separator"));
+            }
+        }
+    }
+
+    // Имена подряд в блоках по BLOCK_CHARS символов, перед каждым именем -- его длина.
+    // Имя не пересекает границу блока, ссылка на имя -- (номер блока << 16 | смещение).
+    // Блоки не перевыделяются при росте, поэтому нет пика памяти на копирование.
+    private static class NameStore {
+        private static final int BLOCK_CHARS = 1 << 16;
+
+        private char[][] blocks = new char[16][];
+        private int block = -1;
+        private int used = BLOCK_CHARS;
+
+        int add(String s, int from, int to) {
+            int length = to - from;
+            if (length >= BLOCK_CHARS) throw new IllegalArgumentException("Name is too long: " + length);
+            if (used + length + 1 > BLOCK_CHARS) {
+                if (++block == blocks.length) blocks = Arrays.copyOf(blocks, block * 2);
+                blocks[block] = new char[BLOCK_CHARS];
+                used = 0;
+            }
+            int ref = block << 16 | used;
+            blocks[block][used] = (char) length;
+            s.getChars(from, to, blocks[block], used + 1);
+            used += length + 1;
+            return ref;
+        }
+
+        String get(int ref) {
+            char[] chars = blocks[ref >>> 16];
+            int offset = ref & (BLOCK_CHARS - 1);
+            return new String(chars, offset + 1, chars[offset]);
+        }
+    }
+
+    // Объём кучи по умолчанию для одной порции внешней сортировки.
+    private static final long DEFAULT_CHUNK_BYTES = Runtime.getRuntime().maxMemory() / 4;
+    // Наибольшее число серий, сливаемых за один проход.
+    private static final int MAX_MERGE_WAY = 64;
+
+    static public void externalSortAddresses(String inputName, String outputName) throws IOException {
+        externalSortAddresses(inputName, outputName, DEFAULT_CHUNK_BYTES);
+    }
+
+    // Внешняя сортировка слиянием.
+    // Оценка: n - число жителей, c - число жителей в одной порции
+    //         Ресурсоемкость: O(c) в куче + O(n) на диске
+    //         Быстродействие: O(n log(n)), число проходов слияния O(log(n / c) / log(MAX_MERGE_WAY))
+    // Жители читаются порциями, приблизительный размер которых в куче не превышает chunkBytes,
+    // каждая порция сортируется по адресу и имени и сбрасывается во временный файл,
+    // затем серии сливаются через PriorityQueue с группировкой жителей одного дома в строку.
+    static public void externalSortAddresses(String inputName, String outputName, long chunkBytes)
+            throws IOException {
+        if (chunkBytes <= 0) throw new IllegalArgumentException("chunkBytes must be positive: " + chunkBytes);
+        List<Path> runs = new ArrayList<>();
+        // все созданные временные файлы, включая промежуточные серии, удаляются в finally
+        List<Path> created = new ArrayList<>();
+        try {
+            List<Resident> chunk = new ArrayList<>();
+            try (BufferedReader br = Files.newBufferedReader(Path.of(inputName), StandardCharsets.UTF_8)) {
+                long used = 0;
+                for (String line; (line = br.readLine()) != null; ) {
+                    if (!addressLine.matcher(line).matches())
+                        throw new IllegalArgumentException(line);
+                    chunk.add(Resident.of(line));
+                    // строка в UTF-16 (около 40 + 2 * длина байт), запись Resident (около 32 байт),
+                    // ссылка в списке и временный буфер сортировки; замер на 1M строк -- 145 байт
+                    // на жителя при средней длине строки 33 символа
+                    used += 2L * line.length() + 96;
+                    if (used >= chunkBytes) {
+                        runs.add(spillRun(chunk, created));
+                        chunk.clear();
+                        used = 0;
+                    }
+                }
+            }
+
+            try (ResidentGroupWriter writer = new ResidentGroupWriter(outputName)) {
+                if (runs.isEmpty()) {
+                    // Всё поместилось в одну порцию
+                    Collections.sort(chunk);
+                    for (Resident resident : chunk) writer.accept(resident);
+                    return;
+                }
+                if (!chunk.isEmpty()) runs.add(spillRun(chunk, created));
+                chunk = null;
+
+                while (runs.size() > MAX_MERGE_WAY) {
+                    List<Path> merged = new ArrayList<>();
+                    for (int i = 0; i < runs.size(); i += MAX_MERGE_WAY) {
+                        List<Path> group = runs.subList(i, min(i + MAX_MERGE_WAY, runs.size()));
+                        Path run = Files.createTempFile("addresses", ".run");
+                        created.add(run);
+                        merged.add(run);
+                        try (BufferedWriter out = Files.newBufferedWriter(run, StandardCharsets.UTF_8)) {
+                            mergeRuns(group, resident -> {
+                                out.write(resident.line());
+                                out.newLine();
+                            });
+                        }
+                        for (Path path : group) Files.deleteIfExists(path);
+                    }
+                    runs = merged;
+                }
+                mergeRuns(runs, writer);
+            }
+        } finally {
+            for (Path run : created) Files.deleteIfExists(run);
+        }
+    }
+
+    private static Path spillRun(List<Resident> chunk, List<Path> created) throws IOException {
+        Collections.sort(chunk);
+        Path run = Files.createTempFile("addresses", ".run");
+        created.add(run);
+        try (BufferedWriter out = Files.newBufferedWriter(run, StandardCharsets.UTF_8)) {
+            for (Resident resident : chunk) {
+                out.write(resident.line());
+                out.newLine();
+            }
+        }
+        return run;
+    }
+
+    private interface ResidentSink {
+        void accept(Resident resident) throws IOException;
+    }
+
+    // k-путевое слияние отсортированных серий
+    private static void mergeRuns(List<Path> runs, ResidentSink sink) throws IOException {
+        PriorityQueue<RunReader> queue = new PriorityQueue<>(runs.size());
+        // читатель, извлечённый из очереди и ещё не возвращённый в неё
+        RunReader reader = null;
+        try {
+            for (Path run : runs) {
+                reader = new RunReader(run);
+                if (reader.current != null) queue.add(reader);
+                else reader.close();
+                reader = null;
+            }
+            while (!queue.isEmpty()) {
+                reader = queue.poll();
+                sink.accept(reader.current);
+                if (reader.advance()) queue.add(reader);
+                else reader.close();
+                reader = null;
+            }
+        } finally {
+            if (reader != null) reader.close();
+            for (RunReader queued : queue) queued.close();
+        }
+    }
+
+    private static class RunReader implements Comparable<RunReader>, Closeable {
+        private final BufferedReader reader;
+        private Resident current;
+
+        RunReader(Path run) throws IOException {
+            reader = Files.newBufferedReader(run, StandardCharsets.UTF_8);
+            try {
+                advance();
+            } catch (IOException | RuntimeException e) {
+                reader.close();
+                throw e;
+            }
+        }
+
+        boolean advance() throws IOException {
+            String line = reader.readLine();
+            current = line == null ? null : Resident.of(line);
+            return current != null;
+        }
+
+        @Override
+        public int compareTo(@NotNull RunReader other) {
+            return current.compareTo(other.current);
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+
+    // Житель: исходная строка вида "Фамилия Имя - Улица Дом" и границы её частей.
+    // Имя и улица не выделяются в отдельные строки и не получают ключей сравнения: они сравниваются
+    // на месте через CollationKey.compare, так что в памяти порции остаются только сами строки.
+    private record Resident(String line, int dash, int space, int number) implements Comparable<Resident> {
+        static Resident of(String line) {
+            int dash = line.indexOf(" - ");
+            int space = line.lastIndexOf(' ');
+            return new Resident(line, dash, space, Integer.parseInt(line.substring(space + 1)));
+        }
+
+        boolean sameAddress(Resident other) {
+            return number == other.number && space - dash == other.space - other.dash &&
+                    line.regionMatches(dash + 3, other.line, other.dash + 3, space - dash - 3);
+        }
+
+        @Override
+        public int compareTo(@NotNull Resident other) {
+            int compare = CollationKey.compare(line, dash + 3, space, other.line, other.dash + 3, other.space);
+            if (compare != 0) return compare;
+            compare = Integer.compare(number, other.number);
+            if (compare != 0) return compare;
+            return CollationKey.compare(line, 0, dash, other.line, 0, other.dash);
+        }
+    }
+
+    // Запись отсортированных жителей в формате "Улица Дом - Имя, Имя"
+    private static class ResidentGroupWriter implements ResidentSink, Closeable {
+        private final BufferedWriter writer;
+        private Resident previous = null;
+
+        ResidentGroupWriter(String outputName) throws IOException {
+            writer = Files.newBufferedWriter(Path.of(outputName), StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public void accept(Resident resident) throws IOException {
+            String line = resident.line();
+            if (previous != null && resident.sameAddress(previous)) {
+                writer.write(", ");
+            } else {
+                if (previous != null) writer.write(System.getProperty("line.separator"));
+                writer.write(line, resident.dash() + 3, resident.space() - resident.dash() - 3);
+                writer.write(" " + resident.number() + " - ");
+            }
+            previous = resident;
+            writer.write(line, 0, resident.dash());
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (previous != null) writer.write(System.getProperty("line.separator"));
+            writer.close();
+        }
+    }
+
     public static class Address implements Comparable<Address> {
 
         private final int number;
@@ -177,54 +600,13 @@ public class JavaTasks {
 
         @Override
         public int compareTo(@NotNull Address anotherAddress) {
-            int compare;
-            if (!this.street.equals(anotherAddress.street))
-                return comparator.compare(this.street, anotherAddress.street);
+            int compare = CollationKey.compare(this.street, anotherAddress.street);
+            if (compare != 0) return compare;
             if (this.number - anotherAddress.number == 0) return 0;
             return (this.number - anotherAddress.number) / abs(this.number - anotherAddress.number);
         }
     }
 
-    private static final StringComparator comparator = new StringComparator();
-
-    public static class StringComparator implements Comparator<String> {
-        @Override
-        public int compare(String o1, String o2) {
-            int compare;
-            if (o1.indexOf('ё') != -1 || o2.indexOf('ё') != -1 ||
-                    o1.indexOf('Ё') != -1 || o2.indexOf('Ё') != -1)
-                compare = customCompare(o1, o2);
-            else compare = o1.compareTo(o2);
-            return compare;
-        }
-    }
-
-    public static int customCompare(String s1, String s2) {
-        int len1 = s1.length();
-        int len2 = s2.length();
-        int lim = Math.min(len1, len2);
-        for (int k = 0; k < lim; k++) {
-            char c1 = s1.charAt(k);
-            char c2 = s2.charAt(k);
-            if (c1 != c2 && (c1 == 'ё' || c2 == 'ё' || c1 == 'Ё' || c2 == 'Ё')) {
-                if (c1 == 'ё' || c1 == 'Ё') return compareWithSpecialChar(c2, c1 == 'Ё');
-                else return -compareWithSpecialChar(c1, c2 == 'Ё');
-            }
-            if (c1 != c2) {
-                return c1 - c2;
-            }
-        }
-        return len1 - len2;
-    }
-
-    public static int compareWithSpecialChar(char c, boolean upCase) {
-        char ch;
-        if ((c >= 'ж' && c <= 'я') || (c >= 'Ж' && c <= 'Я')) ch = 'е';
-        else ch = 'ж';
-        if (upCase) ch = Character.toUpperCase(ch);
-        return ch - c;
-    }
-
     /**
      * Сортировка температур
      * <p>
@@ -258,7 +640,183 @@ public class JavaTasks {
 
     static public void sortTemperatures(String inputName, String outputName) throws IOException {
         //fastSortTemperatures(inputName, outputName);
-        fastestSortTemperatures(inputName, outputName);
+        //fastestSortTemperatures(inputName, outputName);
+        mappedSortTemperatures(inputName, outputName);
+    }
+
+    // Корзина с индексом temp + TEMP_OFFSET хранит число температур temp (в десятых долях градуса).
+    private static final int TEMP_OFFSET = 2739;
+    private static final int TEMP_SLOTS = 7740;
+
+    // Размер окна отображения файла в память (FileChannel.map ограничен 2 ГБ на одно окно).
+    private static final long MAP_WINDOW = 1L << 28;
+
+    // Оценка: n - число температур
+    //         Ресурсоемкость: O(1), без выделения памяти на каждую строку
+    //         Быстродействие: O(n)
+    // Температуры разбираются прямо из байтов отображённого в память файла в гистограмму tempArray.
+    static public void mappedSortTemperatures(String inputName, String outputName) throws IOException {
+        int[] tempArray = new int[TEMP_SLOTS];
+
+        parseMapped(inputName, (buffer, end) -> countTemperatures(buffer, 0, end, tempArray));
+
+        writeTemperatures(tempArray, outputName);
+    }
+
+    interface MappedWindowParser<E extends Exception> {
+        void parse(ByteBuffer buffer, int end) throws E;
+    }
+
+    // Отображение файла в память окнами по MAP_WINDOW байт; каждое окно обрезается по последнему переводу строки,
+    // и parser получает только целые строки buffer[0, end).
+    static <E extends Exception> void parseMapped(String inputName, MappedWindowParser<E> parser)
+            throws IOException, E {
+        try (FileChannel channel = FileChannel.open(Path.of(inputName), StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+            while (position < size) {
+                long length = min(MAP_WINDOW, size - position);
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                int end = (int) length;
+                if (position + length < size) {
+                    while (end > 0 && buffer.get(end - 1) != '\n') end--;
+                    if (end == 0) throw new IllegalArgumentException("Too long line at byte " + position);
+                }
+                parser.parse(buffer, end);
+                position += end;
+            }
+        }
+    }
+
+    // Оценка: n - число температур, p - число потоков
+    //         Ресурсоемкость: O(p) гистограмм по TEMP_SLOTS корзин
+    //         Быстродействие: O(n / p + p * TEMP_SLOTS)
+    // Файл делится на диапазоны байтов, выровненные по переводам строк; каждый диапазон отображается в память
+    // и считается в собственную гистограмму в ForkJoinPool, затем гистограммы складываются.
+    // Результат совпадает с mappedSortTemperatures байт в байт.
+    static public void parallelSortTemperatures(String inputName, String outputName) throws IOException {
+        int[] tempArray;
+
+        try (FileChannel channel = FileChannel.open(Path.of(inputName), StandardOpenOption.READ)) {
+            long size = channel.size();
+            int parallelism = ForkJoinPool.commonPool().getParallelism();
+            long chunks = max(max(1L, parallelism * 4L), (size + MAP_WINDOW - 1) / MAP_WINDOW * 2);
+            chunks = min(chunks, max(1L, size / 4096));
+
+            long[] bounds = new long[(int) chunks + 1];
+            bounds[bounds.length - 1] = size;
+            for (int i = 1; i < chunks; i++) {
+                bounds[i] = max(bounds[i - 1], nextLineStart(channel, size / chunks * i, size));
+            }
+
+            tempArray = ForkJoinPool.commonPool().invoke(new TemperatureCountTask(channel, bounds, 0, bounds.length - 1));
+        }
+
+        writeTemperatures(tempArray, outputName);
+    }
+
+    // Позиция начала строки, следующей за той, в которой находится байт position - 1.
+    private static long nextLineStart(FileChannel channel, long position, long size) throws IOException {
+        if (position == 0) return 0;
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        long pos = position - 1;
+        while (pos < size) {
+            buffer.clear();
+            int read = channel.read(buffer, pos);
+            if (read <= 0) break;
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') return pos + i + 1;
+            }
+            pos += read;
+        }
+        return size;
+    }
+
+    @SuppressWarnings("serial")
+    private static class TemperatureCountTask extends RecursiveTask<int[]> {
+        private final FileChannel channel;
+        private final long[] bounds;
+        private final int from;
+        private final int to;
+
+        TemperatureCountTask(FileChannel channel, long[] bounds, int from, int to) {
+            this.channel = channel;
+            this.bounds = bounds;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected int[] compute() {
+            if (to - from == 1) {
+                int[] tempArray = new int[TEMP_SLOTS];
+                long length = bounds[to] - bounds[from];
+                if (length == 0) return tempArray;
+                if (length > MAP_WINDOW) throw new IllegalArgumentException("Too long line at byte " + bounds[from]);
+                try {
+                    MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, bounds[from], length);
+                    countTemperatures(buffer, 0, (int) length, tempArray);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return tempArray;
+            }
+            int middle = (from + to) / 2;
+            TemperatureCountTask left = new TemperatureCountTask(channel, bounds, from, middle);
+            left.fork();
+            int[] tempArray = new TemperatureCountTask(channel, bounds, middle, to).compute();
+            int[] leftArray = left.join();
+            for (int i = 0; i < TEMP_SLOTS; i++) {
+                tempArray[i] += leftArray[i];
+            }
+            return tempArray;
+        }
+    }
+
+    // Разбор строк вида -?\d{1,3}\.\d из байтов buffer[from, to) с подсчётом в tempArray.
+    // Допустимы те же значения, что и в fastestSortTemperatures: от -273.9 до 500.0.
+    static void countTemperatures(ByteBuffer buffer, int from, int to, int[] tempArray) {
+        int pos = from;
+        while (pos < to) {
+            int start = pos;
+            boolean negative = buffer.get(pos) == '-';
+            if (negative) pos++;
+
+            int integer = 0;
+            int digits = 0;
+            while (pos < to && digits <= 3) {
+                int digit = buffer.get(pos) - '0';
+                if (digit < 0 || digit > 9) break;
+                integer = integer * 10 + digit;
+                digits++;
+                pos++;
+            }
+            if (digits == 0 || digits > 3 || pos + 1 >= to || buffer.get(pos) != '.')
+                throw new IllegalArgumentException(lineAt(buffer, start, to));
+            int fraction = buffer.get(pos + 1) - '0';
+            if (fraction < 0 || fraction > 9) throw new IllegalArgumentException(lineAt(buffer, start, to));
+            pos += 2;
+
+            if (pos < to && buffer.get(pos) == '\r') pos++;
+            if (pos < to) {
+                if (buffer.get(pos) != '\n') throw new IllegalArgumentException(lineAt(buffer, start, to));
+                pos++;
+            }
+
+            int temp = integer * 10 + fraction;
+            if (negative) temp = -temp;
+            if (temp < -TEMP_OFFSET || temp > 5000) throw new IllegalArgumentException(lineAt(buffer, start, to));
+            tempArray[temp + TEMP_OFFSET]++;
+        }
+    }
+
+    // Текст строки, начинающейся с позиции start, для сообщения об ошибке.
+    private static String lineAt(ByteBuffer buffer, int start, int to) {
+        int end = start;
+        while (end < to && buffer.get(end) != '\n' && buffer.get(end) != '\r') end++;
+        byte[] bytes = new byte[end - start];
+        buffer.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
     }
 
     // Оценка: n - число температур
@@ -287,19 +845,19 @@ public class JavaTasks {
 
         br.close();
 
-        OutputStreamWriter writer =
-                new OutputStreamWriter(new FileOutputStream(outputName), StandardCharsets.UTF_8);
+        writeTemperatures(tempArray, outputName);
+    }
 
-        for (int i = 0; i < 7740; i++) {
-                int amount = tempArray[i];
-                while (amount > 0) {
-                    if ((i - 2739) / 10 == 0 && (i - 2739) < 0) writer.write("-");
-                    writer.write("" + (i - 2739) / 10 + "." + abs((i - 2739) % 10));
-                    writer.write(System.getProperty("line.separator"));
-                    amount--;
-                }
-        }
-        writer.close();
+    // Текст каждой корзины строится один раз при первой сортировке температур, вывод идёт через CountingSortWriter.
+    private static class TemperatureWriter {
+        static final CountingSortWriter INSTANCE = new CountingSortWriter(TEMP_SLOTS, i -> {
+            int temp = i - TEMP_OFFSET;
+            return (temp < 0 ? "-" : "") + abs(temp) / 10 + "." + abs(temp) % 10;
+        });
+    }
+
+    private static void writeTemperatures(int[] tempArray, String outputName) throws IOException {
+        TemperatureWriter.INSTANCE.write(tempArray, outputName);
     }
 
     // Оценка: n - число температур
@@ -386,8 +944,67 @@ public class JavaTasks {
      * 2
      * 2
      */
-    static public void sortSequence(String inputName, String outputName) {
-        throw new NotImplementedError();
+    // Оценка: n - число чисел, k - число различных чисел
+    //         Ресурсоемкость: O(k) в IntIntHashMap, последовательность в памяти не хранится
+    //         Быстродействие: O(n), два прохода по файлу
+    // Первый проход считает частоты и выбирает наиболее частое минимальное число,
+    // второй переписывает последовательность без него и дописывает в конец его серию.
+    static public void sortSequence(String inputName, String outputName) throws IOException {
+        IntIntHashMap frequencies = new IntIntHashMap(1 << 16);
+        int[] answer = new int[2]; // число и его частота
+
+        parseMapped(inputName, (buffer, end) -> parseNumbers(buffer, end, value -> {
+            int frequency = frequencies.increment(value);
+            if (frequency > answer[1] || frequency == answer[1] && value < answer[0]) {
+                answer[0] = value;
+                answer[1] = frequency;
+            }
+        }));
+
+        byte[] separator = System.getProperty("line.separator").getBytes(StandardCharsets.UTF_8);
+        byte[] digits = new byte[10];
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(outputName), 1 << 16)) {
+            parseMapped(inputName, (buffer, end) -> parseNumbers(buffer, end, value -> {
+                if (value != answer[0]) writeNumber(out, value, digits, separator);
+            }));
+            for (int i = 0; i < answer[1]; i++) {
+                writeNumber(out, answer[0], digits, separator);
+            }
+        }
+    }
+
+    interface IntSink<E extends Exception> {
+        void accept(int value) throws E;
+    }
+
+    // Разбор целых положительных чисел, по одному в строке, из байтов buffer[0, to)
+    static <E extends Exception> void parseNumbers(ByteBuffer buffer, int to, IntSink<E> sink) throws E {
+        int pos = 0;
+        while (pos < to) {
+            int start = pos;
+            long value = 0;
+            while (pos < to && value <= Integer.MAX_VALUE) {
+                int digit = buffer.get(pos) - '0';
+                if (digit < 0 || digit > 9) break;
+                value = value * 10 + digit;
+                pos++;
+            }
+            if (pos < to && buffer.get(pos) == '\r') pos++;
+            if (pos < to && buffer.get(pos++) != '\n' || pos == start || value == 0 || value > Integer.MAX_VALUE)
+                throw new IllegalArgumentException(lineAt(buffer, start, to));
+            sink.accept((int) value);
+        }
+    }
+
+    private static void writeNumber(OutputStream out, int value, byte[] digits, byte[] separator)
+            throws IOException {
+        int i = digits.length;
+        do {
+            digits[--i] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value > 0);
+        out.write(digits, i, digits.length - i);
+        out.write(separator);
     }
 
     /**
@@ -404,7 +1021,139 @@ public class JavaTasks {
      * <p>
      * Результат: second = [1 3 4 9 9 13 15 20 23 28]
      */
+
+    // Оценка: n - длина first, m - число элементов second
+    //         Ресурсоемкость: O(1)
+    //         Быстродействие: O(n + m), при длинных сериях с одной стороны -- O(r log(n + m)), r - число серий
+    // Слияние идёт в second слева направо: позиция записи никогда не обгоняет позицию чтения из second.
     static <T extends Comparable<T>> void mergeArrays(T[] first, T[] second) {
-        throw new NotImplementedError();
+        merge(first, 0, first.length, second, first.length, second.length, second, 0);
+    }
+
+    // Число подряд взятых с одной стороны элементов, после которого слияние переходит в режим галопа (как в TimSort)
+    private static final int MIN_GALLOP = 7;
+
+    // Слияние a[aFrom, aTo) и b[bFrom, bTo) в dest начиная с destFrom; при равенстве первыми идут элементы a.
+    // b и dest могут быть одним массивом, если destFrom + (aTo - aFrom) <= bFrom.
+    private static <T extends Comparable<T>> void merge(T[] a, int aFrom, int aTo, T[] b, int bFrom, int bTo,
+                                                        T[] dest, int destFrom) {
+        int i = aFrom, j = bFrom, k = destFrom;
+        int aWins = 0, bWins = 0;
+        while (i < aTo && j < bTo) {
+            if (aWins >= MIN_GALLOP) {
+                // все элементы a, не большие b[j]
+                int end = gallop(b[j], a, i, aTo, false);
+                System.arraycopy(a, i, dest, k, end - i);
+                k += end - i;
+                i = end;
+                aWins = 0;
+            } else if (bWins >= MIN_GALLOP) {
+                // все элементы b, меньшие a[i]
+                int end = gallop(a[i], b, j, bTo, true);
+                System.arraycopy(b, j, dest, k, end - j);
+                k += end - j;
+                j = end;
+                bWins = 0;
+            } else if (a[i].compareTo(b[j]) <= 0) {
+                dest[k++] = a[i++];
+                aWins++;
+                bWins = 0;
+            } else {
+                dest[k++] = b[j++];
+                bWins++;
+                aWins = 0;
+            }
+        }
+        System.arraycopy(a, i, dest, k, aTo - i);
+        k += aTo - i;
+        // при слиянии на месте оставшиеся элементы b уже стоят на своих местах
+        if (b != dest || j != k) System.arraycopy(b, j, dest, k, bTo - j);
+    }
+
+    // Первый индекс в отсортированном array[from, to), элемент по которому больше key
+    // (не меньше key, если strict), найденный экспоненциальным, а затем двоичным поиском.
+    private static <T extends Comparable<T>> int gallop(T key, T[] array, int from, int to, boolean strict) {
+        int left = from, right = to;
+        for (int step = 1; from + step - 1 < to; step <<= 1) {
+            int probe = from + step - 1;
+            int compare = array[probe].compareTo(key);
+            if (compare > 0 || strict && compare == 0) {
+                right = probe;
+                break;
+            }
+            left = probe + 1;
+        }
+        while (left < right) {
+            int middle = (left + right) >>> 1;
+            int compare = array[middle].compareTo(key);
+            if (compare > 0 || strict && compare == 0) right = middle;
+            else left = middle + 1;
+        }
+        return left;
+    }
+
+    // Размер части результата, которая сливается в одном потоке
+    private static final int PARALLEL_MERGE_GRAIN = 1 << 13;
+
+    // Оценка: n - длина first, m - число элементов second, p - число потоков
+    //         Ресурсоемкость: O(1) кроме стека задач, слияние идёт на месте в second
+    //         Быстродействие: O((n + m) / p + m + log(n + m) * log(n + m)), слагаемое m -- сдвиги System.arraycopy
+    // Результат делится пополам, для середины двоичным поиском находится согласованное разбиение first и second.
+    // Перед запуском половин элементы second, достающиеся левой половине, сдвигаются в конец её части second
+    // (System.arraycopy допускает перекрытие), так что каждая половина устроена как mergeArrays: её элементы second
+    // лежат в конце её собственной части результата, и половины сливаются в ForkJoinPool, не задевая друг друга.
+    static <T extends Comparable<T>> void parallelMergeArrays(T[] first, T[] second) {
+        if (second.length <= PARALLEL_MERGE_GRAIN) {
+            mergeArrays(first, second);
+            return;
+        }
+        ForkJoinPool.commonPool().invoke(new MergeTask<>(first, second, 0, second.length, 0, first.length));
+    }
+
+    @SuppressWarnings("serial")
+    private static class MergeTask<T extends Comparable<T>> extends RecursiveAction {
+        private final T[] first;
+        private final T[] dest;
+        private final int from, to;
+        private final int firstFrom, firstTo;
+
+        // dest[from, to) получается слиянием first[firstFrom, firstTo) и элементов second,
+        // лежащих в dest[from + (firstTo - firstFrom), to)
+        MergeTask(T[] first, T[] dest, int from, int to, int firstFrom, int firstTo) {
+            this.first = first;
+            this.dest = dest;
+            this.from = from;
+            this.to = to;
+            this.firstFrom = firstFrom;
+            this.firstTo = firstTo;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= PARALLEL_MERGE_GRAIN) {
+                merge(first, firstFrom, firstTo, dest, from + firstTo - firstFrom, to, dest, from);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            int firstMiddle = coRank(middle);
+            // элементы second левой половины -- в конец dest[from, middle), правая половина уже на месте
+            int secondCount = middle - from - (firstMiddle - firstFrom);
+            System.arraycopy(dest, from + firstTo - firstFrom, dest, from + firstMiddle - firstFrom, secondCount);
+            invokeAll(new MergeTask<>(first, dest, from, middle, firstFrom, firstMiddle),
+                    new MergeTask<>(first, dest, middle, to, firstMiddle, firstTo));
+        }
+
+        // Число элементов first среди первых position элементов результата
+        private int coRank(int position) {
+            int low = max(firstFrom, position - to + firstTo);
+            int high = min(firstTo, firstFrom + position - from);
+            while (low < high) {
+                int i = (low + high) >>> 1;
+                // последний из элементов second, стоящих в результате перед first[i]
+                if (first[i].compareTo(dest[firstTo + position - i - 1]) <= 0) low = i + 1;
+                else high = i;
+            }
+            return low;
+        }
     }
 }
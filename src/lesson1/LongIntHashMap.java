@@ -0,0 +1,88 @@
+package lesson1;
+
+import java.util.Arrays;
+
+/**
+ * Ассоциативный массив long -> int с открытой адресацией и линейным пробированием
+ * без упаковки ключей и значений в объекты (см. OpenAddressing).
+ */
+public class LongIntHashMap {
+
+    private long[] keys;
+    private int[] values;
+    private int size = 0;
+    // ключ 0 обозначает пустую ячейку, его значение хранится здесь
+    private boolean hasZeroKey = false;
+    private int zeroValue;
+
+    public LongIntHashMap(int expectedSize) {
+        int capacity = OpenAddressing.capacityFor(expectedSize);
+        keys = new long[capacity];
+        values = new int[capacity];
+    }
+
+    public int size() {
+        return hasZeroKey ? size + 1 : size;
+    }
+
+    public int get(long key, int missing) {
+        if (key == 0) return hasZeroKey ? zeroValue : missing;
+        int mask = keys.length - 1;
+        for (int i = OpenAddressing.index(key, mask); keys[i] != 0; i = (i + 1) & mask) {
+            if (keys[i] == key) return values[i];
+        }
+        return missing;
+    }
+
+    public void put(long key, int value) {
+        put(key, value, true);
+    }
+
+    // Значение добавляется, только если ключа ещё нет; возвращает true, если ключ добавлен
+    public boolean putIfAbsent(long key, int value) {
+        return put(key, value, false);
+    }
+
+    private boolean put(long key, int value, boolean replace) {
+        if (key == 0) {
+            boolean added = !hasZeroKey;
+            if (added || replace) zeroValue = value;
+            hasZeroKey = true;
+            return added;
+        }
+        int mask = keys.length - 1;
+        int i = OpenAddressing.index(key, mask);
+        for (; keys[i] != 0; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                if (replace) values[i] = value;
+                return false;
+            }
+        }
+        keys[i] = key;
+        values[i] = value;
+        if (++size > OpenAddressing.maxSize(keys.length)) grow();
+        return true;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, 0L);
+        size = 0;
+        hasZeroKey = false;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        int capacity = OpenAddressing.capacityFor(size);
+        keys = new long[capacity];
+        values = new int[capacity];
+        int mask = capacity - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldKeys[j] == 0) continue;
+            int i = OpenAddressing.index(oldKeys[j], mask);
+            while (keys[i] != 0) i = (i + 1) & mask;
+            keys[i] = oldKeys[j];
+            values[i] = oldValues[j];
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package lesson1;
+
+/**
+ * Общие параметры таблиц с открытой адресацией и линейным пробированием (IntIntHashMap, LongIntHashMap).
+ * <p>
+ * Ёмкость -- степень двойки, таблица растёт вдвое, когда заполнено больше LOAD_FACTOR ячеек.
+ * Ключ 0 служит признаком пустой ячейки, поэтому значение для него хранится отдельно от таблицы.
+ */
+final class OpenAddressing {
+
+    static final float LOAD_FACTOR = 0.75f;
+
+    // наибольшая степень двойки, допустимая как длина массива
+    static final int MAX_CAPACITY = 1 << 30;
+
+    private OpenAddressing() {
+    }
+
+    // Ёмкость таблицы для expectedSize ключей
+    static int capacityFor(int expectedSize) {
+        if (expectedSize < 0) throw new IllegalArgumentException("Negative expected size: " + expectedSize);
+        long required = (long) Math.ceil(expectedSize / (double) LOAD_FACTOR);
+        if (required > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Too many keys for an open addressing table: " + expectedSize);
+        }
+        return Math.max(4, Integer.highestOneBit((int) Math.max(1, required) - 1) << 1);
+    }
+
+    // Число ключей, при превышении которого таблица ёмкости capacity растёт
+    static int maxSize(int capacity) {
+        return (int) (capacity * LOAD_FACTOR);
+    }
+
+    static int index(int key, int mask) {
+        int h = key * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    static int index(long key, int mask) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,91 @@
+package lesson1;
+
+import java.util.Comparator;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Счётчики работы алгоритмов Sorts: сравнения, перемещения элементов, глубина рекурсии и выделенная память.
+ * <p>
+ * Включаются свойством -Dlesson1.sorts.probe=true при запуске JVM. Флаг ENABLED -- static final,
+ * поэтому в выключенном состоянии JIT убирает вызовы счётчиков целиком и сортировки работают без накладных расходов.
+ * Счётчики общие для всех потоков; глубина рекурсии считается в каждом потоке отдельно, в снимок попадает максимум.
+ * Задачи ForkJoin передают свою глубину явно (enterTask/exitTask): поток, ждущий в join(), может выполнять
+ * украденную задачу, и без этого её глубина прибавилась бы к глубине ожидающей задачи.
+ * Выделенная память оценивается по размеру содержимого массивов, ссылка считается за 4 байта.
+ */
+public final class SortProbe {
+
+    static final boolean ENABLED = Boolean.getBoolean("lesson1.sorts.probe");
+
+    private static final LongAdder comparisons = new LongAdder();
+    private static final LongAdder moves = new LongAdder();
+    private static final LongAdder allocatedBytes = new LongAdder();
+    private static final LongAccumulator maxDepth = new LongAccumulator(Math::max, 0);
+    private static final ThreadLocal<int[]> depth = ThreadLocal.withInitial(() -> new int[1]);
+
+    private SortProbe() {
+    }
+
+    public record Metrics(long comparisons, long moves, long maxDepth, long allocatedBytes) {
+    }
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    public static void reset() {
+        comparisons.reset();
+        moves.reset();
+        allocatedBytes.reset();
+        maxDepth.reset();
+    }
+
+    public static Metrics snapshot() {
+        return new Metrics(comparisons.sum(), moves.sum(), maxDepth.get(), allocatedBytes.sum());
+    }
+
+    static boolean compared(boolean result) {
+        if (ENABLED) comparisons.increment();
+        return result;
+    }
+
+    static int compared(int result) {
+        if (ENABLED) comparisons.increment();
+        return result;
+    }
+
+    static <T> Comparator<T> counting(Comparator<T> comparator) {
+        return ENABLED ? (a, b) -> compared(comparator.compare(a, b)) : comparator;
+    }
+
+    static void moved(long count) {
+        if (ENABLED) moves.add(count);
+    }
+
+    static void allocated(long bytes) {
+        if (ENABLED) allocatedBytes.add(bytes);
+    }
+
+    static void enter() {
+        if (ENABLED) maxDepth.accumulate(++depth.get()[0]);
+    }
+
+    static void exit() {
+        if (ENABLED) depth.get()[0]--;
+    }
+
+    // Глубина потока на время задачи заменяется глубиной taskDepth, с которой задача была создана;
+    // возвращает прежнюю глубину для exitTask
+    static int enterTask(int taskDepth) {
+        if (!ENABLED) return 0;
+        int[] current = depth.get();
+        int saved = current[0];
+        current[0] = taskDepth;
+        return saved;
+    }
+
+    static void exitTask(int saved) {
+        if (ENABLED) depth.get()[0] = saved;
+    }
+}
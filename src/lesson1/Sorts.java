@@ -1,8 +1,12 @@
 package lesson1;
 
 import java.util.Arrays;
-import java.util.Calendar;
-import java.util.Random;
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
 
 @SuppressWarnings("WeakerAccess")
 public class Sorts {
@@ -12,31 +16,39 @@ public class Sorts {
             T current = elements[i];
             int j = i - 1;
             for (; j >= 0; j--) {
-                if (elements[j].compareTo(current) > 0) elements[j+1] = elements[j];
+                if (SortProbe.compared(elements[j].compareTo(current)) > 0) elements[j+1] = elements[j];
                 else break;
             }
             elements[j+1] = current;
+            SortProbe.moved(i - j);
         }
     }
 
     public static void insertionSort(int[] elements) {
-        for (int i = 1; i < elements.length; i++) {
+        insertionSort(elements, 0, elements.length);
+    }
+
+    private static void insertionSort(int[] elements, int begin, int end) {
+        for (int i = begin + 1; i < end; i++) {
             int current = elements[i];
             int j = i - 1;
-            for (; j >= 0; j--) {
-                if (elements[j] > current) elements[j+1] = elements[j];
+            for (; j >= begin; j--) {
+                if (SortProbe.compared(elements[j] > current)) elements[j+1] = elements[j];
                 else break;
             }
             elements[j+1] = current;
+            SortProbe.moved(i - j);
         }
     }
 
     private static void merge(int[] elements, int begin, int middle, int end) {
         int[] left = Arrays.copyOfRange(elements, begin, middle);
         int[] right = Arrays.copyOfRange(elements, middle, end);
+        SortProbe.allocated(4L * (end - begin));
+        SortProbe.moved(2L * (end - begin));
         int li = 0, ri = 0;
         for (int i = begin; i < end; i++) {
-            if (li < left.length && (ri == right.length || left[li] <= right[ri])) {
+            if (li < left.length && (ri == right.length || SortProbe.compared(left[li] <= right[ri]))) {
                 elements[i] = left[li++];
             }
             else {
@@ -47,66 +59,465 @@ public class Sorts {
 
     private static void mergeSort(int[] elements, int begin, int end) {
         if (end - begin <= 1) return;
+        SortProbe.enter();
         int middle = (begin + end) / 2;
         mergeSort(elements, begin, middle);
         mergeSort(elements, middle, end);
         merge(elements, begin, middle, end);
+        SortProbe.exit();
     }
 
     public static void mergeSort(int[] elements) {
         mergeSort(elements, 0, elements.length);
     }
 
-    private static void heapify(int[] elements, int start, int length) {
-        int left = 2 * start + 1;
-        int right = left + 1;
-        int max = start;
-        if (left < length && elements[left] > elements[max]) {
-            max = left;
+    private static final int INSERTION_SORT_THRESHOLD = 32;
+
+    private static final int PARALLEL_SORT_THRESHOLD = 1 << 13;
+
+    private static void mergeInto(int[] source, int[] destination, int begin, int middle, int end) {
+        SortProbe.moved(end - begin);
+        int li = begin, ri = middle;
+        for (int i = begin; i < end; i++) {
+            if (li < middle && (ri == end || SortProbe.compared(source[li] <= source[ri]))) {
+                destination[i] = source[li++];
+            }
+            else {
+                destination[i] = source[ri++];
+            }
         }
-        if (right < length && elements[right] > elements[max]) {
-            max = right;
+    }
+
+    // Sorts destination[begin, end), source must hold the same elements in this range and is used as a scratch
+    private static void mergeSort(int[] source, int[] destination, int begin, int end) {
+        if (end - begin <= INSERTION_SORT_THRESHOLD) {
+            insertionSort(destination, begin, end);
+            return;
         }
-        if (max != start) {
-            int temp = elements[max];
-            elements[max] = elements[start];
-            elements[start] = temp;
-            heapify(elements, max, length);
+        SortProbe.enter();
+        int middle = (begin + end) >>> 1;
+        mergeSort(destination, source, begin, middle);
+        mergeSort(destination, source, middle, end);
+        mergeInto(source, destination, begin, middle, end);
+        SortProbe.exit();
+    }
+
+    @SuppressWarnings("serial")
+    private static class MergeSortTask extends RecursiveAction {
+        private final int[] source;
+        private final int[] destination;
+        private final int begin;
+        private final int end;
+        // recursion depth at which the task was created, reported to SortProbe
+        private final int depth;
+
+        MergeSortTask(int[] source, int[] destination, int begin, int end, int depth) {
+            this.source = source;
+            this.destination = destination;
+            this.begin = begin;
+            this.end = end;
+            this.depth = depth;
         }
+
+        @Override
+        protected void compute() {
+            int savedDepth = SortProbe.enterTask(depth);
+            if (end - begin <= PARALLEL_SORT_THRESHOLD) {
+                mergeSort(source, destination, begin, end);
+            }
+            else {
+                SortProbe.enter();
+                int middle = (begin + end) >>> 1;
+                invokeAll(new MergeSortTask(destination, source, begin, middle, depth + 1),
+                          new MergeSortTask(destination, source, middle, end, depth + 1));
+                mergeInto(source, destination, begin, middle, end);
+                SortProbe.exit();
+            }
+            SortProbe.exitTask(savedDepth);
+        }
+    }
+
+    public static void parallelMergeSort(int[] elements) {
+        int[] buffer = elements.clone();
+        SortProbe.allocated(4L * elements.length);
+        ForkJoinPool.commonPool().invoke(new MergeSortTask(buffer, elements, 0, elements.length, 0));
+    }
+
+    // Natural merge sort: the array is cut into its own ascending and strictly descending runs, descending runs
+    // are reversed and runs shorter than INSERTION_SORT_THRESHOLD are extended by insertion sort.
+    // Runs are merged through a stack in the order of their powers (depth of the boundary between two runs
+    // in a perfectly balanced merge tree, as in powersort), so sorted input takes a single pass,
+    // k runs take O(n log k) and the stack never holds more than log n + 1 runs.
+
+    private static final int RUN_STACK_SIZE = Integer.SIZE + 1;
+
+    private static int runPower(int begin, int middle, int end, int length) {
+        long a = (long) begin + middle, b = (long) middle + end;
+        int power = 0;
+        while (true) {
+            power++;
+            if (a >= length) {
+                a -= length;
+                b -= length;
+            }
+            else if (b >= length) break;
+            a <<= 1;
+            b <<= 1;
+        }
+        return power;
     }
 
-    private static void buildHeap(int[] elements) {
-        for (int start = elements.length / 2 - 1; start >= 0; start--) {
-            heapify(elements, start, elements.length);
+    private static void reverse(int[] elements, int begin, int end) {
+        for (int i = begin, j = end - 1; i < j; i++, j--) {
+            swap(elements, i, j);
         }
     }
 
-    public static void heapSort(int[] elements) {
-        buildHeap(elements);
-        for (int j = elements.length - 1; j >= 1; j--) {
-            int temp = elements[0];
-            elements[0] = elements[j];
+    // Returns the end of the run starting at begin, the run is sorted on return
+    private static int naturalRun(int[] elements, int begin, int end) {
+        int i = begin + 1;
+        if (i >= end) return end;
+        if (SortProbe.compared(elements[i] < elements[begin])) {
+            while (++i < end && SortProbe.compared(elements[i] < elements[i - 1]));
+            reverse(elements, begin, i);
+        }
+        else {
+            while (++i < end && SortProbe.compared(elements[i] >= elements[i - 1]));
+        }
+        if (i - begin < INSERTION_SORT_THRESHOLD && i < end) {
+            i = Math.min(end, begin + INSERTION_SORT_THRESHOLD);
+            insertionSort(elements, begin, i);
+        }
+        return i;
+    }
+
+    // Merges sorted [begin, middle) and [middle, end), returns the (possibly grown) buffer
+    private static int[] mergeRuns(int[] elements, int begin, int middle, int end, int[] buffer) {
+        int last = elements[middle - 1], first = elements[middle];
+        if (SortProbe.compared(last <= first)) return buffer;
+        // elements of the left run not greater than first and of the right run not less than last stay in place
+        int low = begin, high = middle - 1;
+        while (low < high) {
+            int m = (low + high) >>> 1;
+            if (SortProbe.compared(elements[m] <= first)) low = m + 1;
+            else high = m;
+        }
+        begin = low;
+        low = middle + 1;
+        high = end;
+        while (low < high) {
+            int m = (low + high) >>> 1;
+            if (SortProbe.compared(elements[m] < last)) low = m + 1;
+            else high = m;
+        }
+        end = low;
+
+        int leftLength = middle - begin, rightLength = end - middle;
+        int bufferLength = Math.min(leftLength, rightLength);
+        if (buffer == null || buffer.length < bufferLength) {
+            buffer = new int[Math.min(elements.length / 2, Math.max(bufferLength, buffer == null ? 0 : 2 * buffer.length))];
+            SortProbe.allocated(4L * buffer.length);
+        }
+        SortProbe.moved(end - begin + bufferLength);
+        if (leftLength <= rightLength) {
+            System.arraycopy(elements, begin, buffer, 0, leftLength);
+            int li = 0, ri = middle, i = begin;
+            while (li < leftLength && ri < end) {
+                elements[i++] = SortProbe.compared(buffer[li] <= elements[ri]) ? buffer[li++] : elements[ri++];
+            }
+            System.arraycopy(buffer, li, elements, i, leftLength - li);
+        }
+        else {
+            System.arraycopy(elements, middle, buffer, 0, rightLength);
+            int li = middle - 1, ri = rightLength - 1, i = end - 1;
+            while (li >= begin && ri >= 0) {
+                elements[i--] = SortProbe.compared(elements[li] > buffer[ri]) ? elements[li--] : buffer[ri--];
+            }
+            System.arraycopy(buffer, 0, elements, begin, ri + 1);
+        }
+        return buffer;
+    }
+
+    public static void naturalMergeSort(int[] elements) {
+        int n = elements.length;
+        if (n < 2) return;
+        int[] stackBegin = new int[RUN_STACK_SIZE];
+        int[] stackPower = new int[RUN_STACK_SIZE];
+        int size = 0;
+        int[] buffer = null;
+        int begin = 0, end = naturalRun(elements, 0, n);
+        while (end < n) {
+            int next = naturalRun(elements, end, n);
+            int power = runPower(begin, end, next, n);
+            while (size > 0 && stackPower[size - 1] > power) {
+                buffer = mergeRuns(elements, stackBegin[--size], begin, end, buffer);
+                begin = stackBegin[size];
+            }
+            stackBegin[size] = begin;
+            stackPower[size++] = power;
+            begin = end;
+            end = next;
+        }
+        while (size > 0) {
+            buffer = mergeRuns(elements, stackBegin[--size], begin, n, buffer);
+            begin = stackBegin[size];
+        }
+    }
+
+    public static <T extends Comparable<T>> void naturalMergeSort(T[] elements) {
+        naturalMergeSort(elements, Comparator.naturalOrder());
+    }
+
+    // Same as naturalMergeSort(int[]), stable
+    public static <T> void naturalMergeSort(T[] elements, Comparator<? super T> comparator) {
+        sortByRuns(elements, SortProbe.counting(comparator));
+    }
+
+    private static <T> void reverse(T[] elements, int begin, int end) {
+        for (int i = begin, j = end - 1; i < j; i++, j--) {
+            T temp = elements[i];
+            elements[i] = elements[j];
             elements[j] = temp;
-            heapify(elements, 0, j);
+        }
+        SortProbe.moved(end - begin);
+    }
+
+    private static <T> void insertionSort(T[] elements, int begin, int end, Comparator<? super T> comparator) {
+        for (int i = begin + 1; i < end; i++) {
+            T current = elements[i];
+            int j = i - 1;
+            for (; j >= begin; j--) {
+                if (comparator.compare(elements[j], current) > 0) elements[j+1] = elements[j];
+                else break;
+            }
+            elements[j+1] = current;
+            SortProbe.moved(i - j);
         }
     }
 
-    private static final Random random = new Random(Calendar.getInstance().getTimeInMillis());
+    private static <T> int naturalRun(T[] elements, int begin, int end, Comparator<? super T> comparator) {
+        int i = begin + 1;
+        if (i >= end) return end;
+        if (comparator.compare(elements[i], elements[begin]) < 0) {
+            while (++i < end && comparator.compare(elements[i], elements[i - 1]) < 0);
+            reverse(elements, begin, i);
+        }
+        else {
+            while (++i < end && comparator.compare(elements[i], elements[i - 1]) >= 0);
+        }
+        if (i - begin < INSERTION_SORT_THRESHOLD && i < end) {
+            i = Math.min(end, begin + INSERTION_SORT_THRESHOLD);
+            insertionSort(elements, begin, i, comparator);
+        }
+        return i;
+    }
+
+    private static <T> T[] mergeRuns(T[] elements, int begin, int middle, int end, T[] buffer,
+                                     Comparator<? super T> comparator) {
+        T last = elements[middle - 1], first = elements[middle];
+        if (comparator.compare(last, first) <= 0) return buffer;
+        int low = begin, high = middle - 1;
+        while (low < high) {
+            int m = (low + high) >>> 1;
+            if (comparator.compare(elements[m], first) <= 0) low = m + 1;
+            else high = m;
+        }
+        begin = low;
+        low = middle + 1;
+        high = end;
+        while (low < high) {
+            int m = (low + high) >>> 1;
+            if (comparator.compare(elements[m], last) < 0) low = m + 1;
+            else high = m;
+        }
+        end = low;
+
+        int leftLength = middle - begin, rightLength = end - middle;
+        int bufferLength = Math.min(leftLength, rightLength);
+        if (buffer == null || buffer.length < bufferLength) {
+            int length = Math.min(elements.length / 2, Math.max(bufferLength, buffer == null ? 0 : 2 * buffer.length));
+            buffer = Arrays.copyOf(elements, length);
+            SortProbe.allocated(4L * length);
+        }
+        SortProbe.moved(end - begin + bufferLength);
+        if (leftLength <= rightLength) {
+            System.arraycopy(elements, begin, buffer, 0, leftLength);
+            int li = 0, ri = middle, i = begin;
+            while (li < leftLength && ri < end) {
+                elements[i++] = comparator.compare(buffer[li], elements[ri]) <= 0 ? buffer[li++] : elements[ri++];
+            }
+            System.arraycopy(buffer, li, elements, i, leftLength - li);
+        }
+        else {
+            System.arraycopy(elements, middle, buffer, 0, rightLength);
+            int li = middle - 1, ri = rightLength - 1, i = end - 1;
+            while (li >= begin && ri >= 0) {
+                elements[i--] = comparator.compare(elements[li], buffer[ri]) > 0 ? elements[li--] : buffer[ri--];
+            }
+            System.arraycopy(buffer, 0, elements, begin, ri + 1);
+        }
+        Arrays.fill(buffer, 0, bufferLength, null);
+        return buffer;
+    }
+
+    private static <T> void sortByRuns(T[] elements, Comparator<? super T> comparator) {
+        int n = elements.length;
+        if (n < 2) return;
+        int[] stackBegin = new int[RUN_STACK_SIZE];
+        int[] stackPower = new int[RUN_STACK_SIZE];
+        int size = 0;
+        T[] buffer = null;
+        int begin = 0, end = naturalRun(elements, 0, n, comparator);
+        while (end < n) {
+            int next = naturalRun(elements, end, n, comparator);
+            int power = runPower(begin, end, next, n);
+            while (size > 0 && stackPower[size - 1] > power) {
+                buffer = mergeRuns(elements, stackBegin[--size], begin, end, buffer, comparator);
+                begin = stackBegin[size];
+            }
+            stackBegin[size] = begin;
+            stackPower[size++] = power;
+            begin = end;
+            end = next;
+        }
+        while (size > 0) {
+            buffer = mergeRuns(elements, stackBegin[--size], begin, n, buffer, comparator);
+            begin = stackBegin[size];
+        }
+    }
+
+    private static void swap(int[] elements, int i, int j) {
+        int temp = elements[i];
+        elements[i] = elements[j];
+        elements[j] = temp;
+        SortProbe.moved(2);
+    }
+
+    public enum HeapKind {
+        // Binary heap, sift down compares both children with the sifted element on each level
+        BINARY,
+        // Binary heap, Floyd's sift: descend to a leaf along larger children, then sift the element up
+        BOTTOM_UP,
+        // 4-ary heap: twice less levels and children of a node share a cache line
+        QUATERNARY
+    }
+
+    // Heap is stored in elements[offset, offset + length)
+    private static void heapify(int[] elements, int offset, int start, int length) {
+        int current = elements[offset + start];
+        int left;
+        while ((left = 2 * start + 1) < length) {
+            int max = left;
+            if (left + 1 < length && SortProbe.compared(elements[offset + left + 1] > elements[offset + left])) {
+                max = left + 1;
+            }
+            if (SortProbe.compared(elements[offset + max] <= current)) break;
+            elements[offset + start] = elements[offset + max];
+            SortProbe.moved(1);
+            start = max;
+        }
+        elements[offset + start] = current;
+        SortProbe.moved(1);
+    }
+
+    private static void bottomUpHeapify(int[] elements, int offset, int start, int length) {
+        int current = elements[offset + start];
+        int hole = start;
+        int child;
+        while ((child = 2 * hole + 1) < length) {
+            if (child + 1 < length && SortProbe.compared(elements[offset + child + 1] > elements[offset + child])) {
+                child++;
+            }
+            elements[offset + hole] = elements[offset + child];
+            SortProbe.moved(1);
+            hole = child;
+        }
+        while (hole > start) {
+            int parent = (hole - 1) / 2;
+            if (SortProbe.compared(elements[offset + parent] >= current)) break;
+            elements[offset + hole] = elements[offset + parent];
+            SortProbe.moved(1);
+            hole = parent;
+        }
+        elements[offset + hole] = current;
+        SortProbe.moved(1);
+    }
+
+    private static void quaternaryHeapify(int[] elements, int offset, int start, int length) {
+        int current = elements[offset + start];
+        int first;
+        while ((first = 4 * start + 1) < length) {
+            int max = first;
+            int last = Math.min(first + 4, length);
+            for (int child = first + 1; child < last; child++) {
+                if (SortProbe.compared(elements[offset + child] > elements[offset + max])) max = child;
+            }
+            if (SortProbe.compared(elements[offset + max] <= current)) break;
+            elements[offset + start] = elements[offset + max];
+            SortProbe.moved(1);
+            start = max;
+        }
+        elements[offset + start] = current;
+        SortProbe.moved(1);
+    }
+
+    private static void heapify(int[] elements, int offset, int start, int length, HeapKind kind) {
+        switch (kind) {
+            case BINARY -> heapify(elements, offset, start, length);
+            case BOTTOM_UP -> bottomUpHeapify(elements, offset, start, length);
+            case QUATERNARY -> quaternaryHeapify(elements, offset, start, length);
+        }
+    }
+
+    private static void buildHeap(int[] elements, int offset, int length, HeapKind kind) {
+        if (length < 2) return;
+        int arity = kind == HeapKind.QUATERNARY ? 4 : 2;
+        for (int start = (length - 2) / arity; start >= 0; start--) {
+            heapify(elements, offset, start, length, kind);
+        }
+    }
+
+    // After the call elements[end - k, end) hold k largest elements of elements[begin, end) in ascending order
+    private static void partialHeapSort(int[] elements, int begin, int end, int k, HeapKind kind) {
+        buildHeap(elements, begin, end - begin, kind);
+        for (int j = end - begin - 1; j >= Math.max(1, end - begin - k); j--) {
+            swap(elements, begin, begin + j);
+            heapify(elements, begin, 0, j, kind);
+        }
+    }
+
+    private static void heapSort(int[] elements, int begin, int end) {
+        partialHeapSort(elements, begin, end, end - begin, HeapKind.BOTTOM_UP);
+    }
+
+    public static void heapSort(int[] elements) {
+        heapSort(elements, HeapKind.BINARY);
+    }
+
+    public static void heapSort(int[] elements, HeapKind kind) {
+        partialHeapSort(elements, 0, elements.length, elements.length, kind);
+    }
+
+    // Moves k largest elements to the end of the array in ascending order, O(n + k log(n))
+    public static void partialHeapSort(int[] elements, int k, HeapKind kind) {
+        partialHeapSort(elements, 0, elements.length, k, kind);
+    }
 
     private static int partition(int[] elements, int min, int max) {
-        int x = elements[min + random.nextInt(max - min + 1)];
+        int x = elements[min + ThreadLocalRandom.current().nextInt(max - min + 1)];
         int left = min, right = max;
         while (left <= right) {
-            while (elements[left] < x) {
+            while (SortProbe.compared(elements[left] < x)) {
                 left++;
             }
-            while (elements[right] > x) {
+            while (SortProbe.compared(elements[right] > x)) {
                 right--;
             }
             if (left <= right) {
                 int temp = elements[left];
                 elements[left] = elements[right];
                 elements[right] = temp;
+                SortProbe.moved(2);
                 left++;
                 right--;
             }
@@ -116,9 +527,11 @@ public class Sorts {
 
     private static void quickSort(int[] elements, int min, int max) {
         if (min < max) {
+            SortProbe.enter();
             int border = partition(elements, min, max);
             quickSort(elements, min, border);
             quickSort(elements, border + 1, max);
+            SortProbe.exit();
         }
     }
 
@@ -126,6 +539,169 @@ public class Sorts {
         quickSort(elements, 0, elements.length - 1);
     }
 
+    // Three-way partition of elements[begin, end) around a random pivot x: [begin, less) < x, [less, greater) == x,
+    // [greater, end) > x. Returns less in high and greater in low 32 bits.
+    private static long partition3(int[] elements, int begin, int end) {
+        int x = elements[begin + ThreadLocalRandom.current().nextInt(end - begin)];
+        int less = begin, i = begin, greater = end;
+        while (i < greater) {
+            if (SortProbe.compared(elements[i] < x)) swap(elements, less++, i++);
+            else if (SortProbe.compared(elements[i] > x)) swap(elements, i, --greater);
+            else i++;
+        }
+        return (long) less << 32 | greater;
+    }
+
+    private static int depthLimit(int length) {
+        return 2 * (32 - Integer.numberOfLeadingZeros(length));
+    }
+
+    // The smaller part is sorted recursively and the larger one in a loop, so the stack depth is O(log n).
+    // Heap sort is used when depth is exhausted, insertion sort for small parts.
+    private static void introSort(int[] elements, int begin, int end, int depth) {
+        SortProbe.enter();
+        while (end - begin > INSERTION_SORT_THRESHOLD) {
+            if (depth-- == 0) {
+                heapSort(elements, begin, end);
+                SortProbe.exit();
+                return;
+            }
+            long bounds = partition3(elements, begin, end);
+            int less = (int) (bounds >>> 32), greater = (int) bounds;
+            if (less - begin < end - greater) {
+                introSort(elements, begin, less, depth);
+                begin = greater;
+            }
+            else {
+                introSort(elements, greater, end, depth);
+                end = less;
+            }
+        }
+        insertionSort(elements, begin, end);
+        SortProbe.exit();
+    }
+
+    public static void introSort(int[] elements) {
+        introSort(elements, 0, elements.length, depthLimit(elements.length));
+    }
+
+    // Introselect: rearranges elements[begin, end) so that no element before border is greater than any element after it
+    private static void select(int[] elements, int begin, int end, int border, int depth) {
+        while (end - begin > INSERTION_SORT_THRESHOLD) {
+            if (depth-- == 0) {
+                heapSort(elements, begin, end);
+                return;
+            }
+            long bounds = partition3(elements, begin, end);
+            int less = (int) (bounds >>> 32), greater = (int) bounds;
+            if (border < less) end = less;
+            else if (border > greater) begin = greater;
+            else return;
+        }
+        insertionSort(elements, begin, end);
+    }
+
+    // Moves k smallest elements to the beginning of the array in ascending order, O(n + k log(k))
+    public static void partialSort(int[] elements, int k) {
+        if (k < 0 || k > elements.length) throw new IllegalArgumentException("k = " + k);
+        select(elements, 0, elements.length, k, depthLimit(elements.length));
+        introSort(elements, 0, k, depthLimit(k));
+    }
+
+    // Returns k largest elements in descending order, the array is not changed, O(n + k log(k))
+    public static int[] topK(int[] elements, int k) {
+        if (k < 0 || k > elements.length) throw new IllegalArgumentException("k = " + k);
+        int[] copy = elements.clone();
+        SortProbe.allocated(4L * (copy.length + k));
+        int border = copy.length - k;
+        select(copy, 0, copy.length, border, depthLimit(copy.length));
+        introSort(copy, border, copy.length, depthLimit(k));
+        int[] result = new int[k];
+        for (int i = 0; i < k; i++) {
+            result[i] = copy[copy.length - 1 - i];
+        }
+        SortProbe.moved(k);
+        return result;
+    }
+
+    private static final int RADIX_BITS = 8;
+
+    private static final int RADIX = 1 << RADIX_BITS;
+
+    // LSD radix sort by bytes, histograms of all passes are built in one scan.
+    // Top byte is flipped by 0x80 so that negative numbers go first.
+    // Passes where all elements have the same digit are skipped.
+    public static void radixSort(int[] elements) {
+        int passes = Integer.SIZE / RADIX_BITS;
+        int[][] count = new int[passes][RADIX];
+        for (int element: elements) {
+            for (int pass = 0; pass < passes; pass++) {
+                count[pass][digit(element, pass, passes)]++;
+            }
+        }
+        int[] source = elements;
+        int[] destination = new int[elements.length];
+        SortProbe.allocated(4L * (passes * RADIX + elements.length));
+        for (int pass = 0; pass < passes; pass++) {
+            if (elements.length == 0 || count[pass][digit(source[0], pass, passes)] == elements.length) continue;
+            SortProbe.moved(elements.length);
+            int[] start = count[pass];
+            for (int j = 0, sum = 0; j < RADIX; j++) {
+                int c = start[j];
+                start[j] = sum;
+                sum += c;
+            }
+            for (int element: source) {
+                destination[start[digit(element, pass, passes)]++] = element;
+            }
+            int[] temp = source;
+            source = destination;
+            destination = temp;
+        }
+        if (source != elements) {
+            System.arraycopy(source, 0, elements, 0, elements.length);
+            SortProbe.moved(elements.length);
+        }
+    }
+
+    private static int digit(long element, int pass, int passes) {
+        int digit = (int) (element >>> (pass * RADIX_BITS)) & (RADIX - 1);
+        return pass == passes - 1 ? digit ^ (RADIX >>> 1) : digit;
+    }
+
+    public static void radixSort(long[] elements) {
+        int passes = Long.SIZE / RADIX_BITS;
+        int[][] count = new int[passes][RADIX];
+        for (long element: elements) {
+            for (int pass = 0; pass < passes; pass++) {
+                count[pass][digit(element, pass, passes)]++;
+            }
+        }
+        long[] source = elements;
+        long[] destination = new long[elements.length];
+        SortProbe.allocated(4L * passes * RADIX + 8L * elements.length);
+        for (int pass = 0; pass < passes; pass++) {
+            if (elements.length == 0 || count[pass][digit(source[0], pass, passes)] == elements.length) continue;
+            SortProbe.moved(elements.length);
+            int[] start = count[pass];
+            for (int j = 0, sum = 0; j < RADIX; j++) {
+                int c = start[j];
+                start[j] = sum;
+                sum += c;
+            }
+            for (long element: source) {
+                destination[start[digit(element, pass, passes)]++] = element;
+            }
+            long[] temp = source;
+            source = destination;
+            destination = temp;
+        }
+        if (source != elements) {
+            System.arraycopy(source, 0, elements, 0, elements.length);
+            SortProbe.moved(elements.length);
+        }
+    }
+
     public static int[] countingSort(int[] elements, int limit) {
         int[] count = new int[limit + 1];
         for (int element: elements) {
@@ -135,10 +711,365 @@ public class Sorts {
             count[j] += count[j - 1];
         }
         int[] out = new int[elements.length];
+        SortProbe.allocated(4L * (limit + 1 + elements.length));
+        SortProbe.moved(elements.length);
         for (int j = elements.length - 1; j >= 0; j--) {
             out[count[elements[j]] - 1] = elements[j];
             count[elements[j]]--;
         }
         return out;
     }
+
+    // Stable parallel counting sort: each worker counts its own slice, per-key offsets of the workers
+    // and the exclusive prefix sum over keys are computed in parallel, then the slices are scattered concurrently
+    public static int[] parallelCountingSort(int[] elements, int limit) {
+        int workers = Math.min(ForkJoinPool.getCommonPoolParallelism() * 4, elements.length / PARALLEL_SORT_THRESHOLD);
+        if (workers <= 1) return countingSort(elements, limit);
+        int keys = limit + 1;
+        int[] sliceStart = new int[workers + 1];
+        for (int w = 0; w <= workers; w++) {
+            sliceStart[w] = (int) ((long) elements.length * w / workers);
+        }
+
+        int[][] count = new int[workers][keys];
+        IntStream.range(0, workers).parallel().forEach(w -> {
+            int[] local = count[w];
+            for (int j = sliceStart[w]; j < sliceStart[w + 1]; j++) {
+                local[elements[j]]++;
+            }
+        });
+
+        // count[w][key] becomes the number of elements with this key in slices before w,
+        // total[key] the number of elements with this key, then the number of elements with smaller keys
+        int blocks = Math.min(keys, workers);
+        int[] blockStart = new int[blocks + 1];
+        for (int b = 0; b <= blocks; b++) {
+            blockStart[b] = (int) ((long) keys * b / blocks);
+        }
+        int[] total = new int[keys];
+        long[] blockSum = new long[blocks];
+        IntStream.range(0, blocks).parallel().forEach(b -> {
+            long sum = 0;
+            for (int key = blockStart[b]; key < blockStart[b + 1]; key++) {
+                int running = 0;
+                for (int w = 0; w < workers; w++) {
+                    int c = count[w][key];
+                    count[w][key] = running;
+                    running += c;
+                }
+                total[key] = running;
+                sum += running;
+            }
+            blockSum[b] = sum;
+        });
+        long[] blockBase = new long[blocks];
+        for (int b = 1; b < blocks; b++) {
+            blockBase[b] = blockBase[b - 1] + blockSum[b - 1];
+        }
+        IntStream.range(0, blocks).parallel().forEach(b -> {
+            int base = (int) blockBase[b];
+            for (int key = blockStart[b]; key < blockStart[b + 1]; key++) {
+                int c = total[key];
+                total[key] = base;
+                base += c;
+            }
+        });
+
+        int[] out = new int[elements.length];
+        SortProbe.allocated(4L * ((long) workers * keys + keys + elements.length));
+        SortProbe.moved(elements.length);
+        IntStream.range(0, workers).parallel().forEach(w -> {
+            int[] offset = count[w];
+            for (int j = sliceStart[w]; j < sliceStart[w + 1]; j++) {
+                int element = elements[j];
+                out[total[element] + offset[element]++] = element;
+            }
+        });
+        return out;
+    }
+
+    private static final int SAMPLE_OVERSAMPLING = 32;
+
+    public static <T extends Comparable<T>> void sampleSort(T[] elements) {
+        sampleSort(elements, Comparator.naturalOrder());
+    }
+
+    // Parallel sample sort: splitters are taken from a sorted random sample, the slices of the array are
+    // classified into buckets and stably scattered in parallel, then buckets are sorted concurrently.
+    // Elements equal to a splitter form their own bucket, so duplicates never need to be sorted.
+    public static <T> void sampleSort(T[] elements, Comparator<? super T> comparator) {
+        sortBySamples(elements, SortProbe.counting(comparator));
+    }
+
+    private static <T> void sortBySamples(T[] elements, Comparator<? super T> comparator) {
+        int n = elements.length;
+        int parallelism = ForkJoinPool.getCommonPoolParallelism();
+        if (n <= PARALLEL_SORT_THRESHOLD || parallelism <= 1) {
+            Arrays.sort(elements, comparator);
+            return;
+        }
+        int splittersCount = Math.min(parallelism * 4, n / PARALLEL_SORT_THRESHOLD) - 1;
+        if (splittersCount < 1) splittersCount = 1;
+        int workers = splittersCount + 1;
+
+        T[] sample = Arrays.copyOf(elements, (splittersCount + 1) * SAMPLE_OVERSAMPLING);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < sample.length; i++) {
+            sample[i] = elements[random.nextInt(n)];
+        }
+        Arrays.sort(sample, comparator);
+        T[] splitters = Arrays.copyOf(sample, splittersCount);
+        for (int i = 0; i < splittersCount; i++) {
+            splitters[i] = sample[(i + 1) * SAMPLE_OVERSAMPLING];
+        }
+
+        // bucket 2i holds elements between splitters i - 1 and i, bucket 2i + 1 elements equal to splitter i
+        int buckets = 2 * splittersCount + 1;
+        int[] sliceStart = new int[workers + 1];
+        for (int w = 0; w <= workers; w++) {
+            sliceStart[w] = (int) ((long) n * w / workers);
+        }
+        int[] bucketOf = new int[n];
+        int[][] count = new int[workers][buckets];
+        IntStream.range(0, workers).parallel().forEach(w -> {
+            int[] local = count[w];
+            for (int j = sliceStart[w]; j < sliceStart[w + 1]; j++) {
+                int low = 0, high = splitters.length;
+                boolean equal = false;
+                while (low < high) {
+                    int middle = (low + high) >>> 1;
+                    int compare = comparator.compare(splitters[middle], elements[j]);
+                    if (compare < 0) low = middle + 1;
+                    else {
+                        high = middle;
+                        equal = compare == 0;
+                    }
+                }
+                int bucket = equal && low < splitters.length ? 2 * low + 1 : 2 * low;
+                bucketOf[j] = bucket;
+                local[bucket]++;
+            }
+        });
+
+        int[] bucketStart = new int[buckets + 1];
+        for (int b = 0, sum = 0; b < buckets; b++) {
+            bucketStart[b] = sum;
+            for (int w = 0; w < workers; w++) {
+                int c = count[w][b];
+                count[w][b] = sum;
+                sum += c;
+            }
+            bucketStart[b + 1] = sum;
+        }
+
+        T[] scattered = elements.clone();
+        SortProbe.allocated(4L * ((long) workers * buckets + 2L * n + sample.length + splittersCount));
+        SortProbe.moved(2L * n);
+        IntStream.range(0, workers).parallel().forEach(w -> {
+            int[] offset = count[w];
+            for (int j = sliceStart[w]; j < sliceStart[w + 1]; j++) {
+                scattered[offset[bucketOf[j]]++] = elements[j];
+            }
+        });
+
+        IntStream.range(0, buckets).parallel().forEach(b -> {
+            if (b % 2 == 0) Arrays.sort(scattered, bucketStart[b], bucketStart[b + 1], comparator);
+            System.arraycopy(scattered, bucketStart[b], elements, bucketStart[b], bucketStart[b + 1] - bucketStart[b]);
+        });
+    }
+
+    // Primitive overloads for long[], written out for the element type so that every hot loop works with one
+    // primitive type only. insertionSort and heapSort are the same algorithms as for int[], the other two are not:
+    // mergeSort is the ping-pong merge sort of parallelMergeSort(int[]) run sequentially (one buffer of n elements,
+    // source and destination swap roles on every level, insertion sort for small parts), and quickSort is
+    // the three-way introsort of introSort(int[]) with the same depth limit and heap sort fallback.
+
+    public static void insertionSort(long[] elements) {
+        insertionSort(elements, 0, elements.length);
+    }
+
+    private static void insertionSort(long[] elements, int begin, int end) {
+        for (int i = begin + 1; i < end; i++) {
+            long current = elements[i];
+            int j = i - 1;
+            for (; j >= begin; j--) {
+                if (SortProbe.compared(elements[j] > current)) elements[j+1] = elements[j];
+                else break;
+            }
+            elements[j+1] = current;
+            SortProbe.moved(i - j);
+        }
+    }
+
+    // Sorts destination[begin, end), source must hold the same elements in this range and is used as a scratch
+    private static void mergeSort(long[] source, long[] destination, int begin, int end) {
+        if (end - begin <= INSERTION_SORT_THRESHOLD) {
+            insertionSort(destination, begin, end);
+            return;
+        }
+        SortProbe.enter();
+        int middle = (begin + end) >>> 1;
+        mergeSort(destination, source, begin, middle);
+        mergeSort(destination, source, middle, end);
+        SortProbe.moved(end - begin);
+        int li = begin, ri = middle;
+        for (int i = begin; i < end; i++) {
+            if (li < middle && (ri == end || SortProbe.compared(source[li] <= source[ri]))) {
+                destination[i] = source[li++];
+            }
+            else {
+                destination[i] = source[ri++];
+            }
+        }
+        SortProbe.exit();
+    }
+
+    public static void mergeSort(long[] elements) {
+        long[] buffer = elements.clone();
+        SortProbe.allocated(8L * elements.length);
+        mergeSort(buffer, elements, 0, elements.length);
+    }
+
+    // Heap is stored in elements[offset, offset + length)
+    private static void heapify(long[] elements, int offset, int start, int length) {
+        long current = elements[offset + start];
+        int left;
+        while ((left = 2 * start + 1) < length) {
+            int max = left;
+            if (left + 1 < length && SortProbe.compared(elements[offset + left + 1] > elements[offset + left])) {
+                max = left + 1;
+            }
+            if (SortProbe.compared(elements[offset + max] <= current)) break;
+            elements[offset + start] = elements[offset + max];
+            SortProbe.moved(1);
+            start = max;
+        }
+        elements[offset + start] = current;
+        SortProbe.moved(1);
+    }
+
+    private static void heapSort(long[] elements, int begin, int end) {
+        int length = end - begin;
+        for (int start = length / 2 - 1; start >= 0; start--) {
+            heapify(elements, begin, start, length);
+        }
+        for (int j = length - 1; j >= 1; j--) {
+            swap(elements, begin, begin + j);
+            heapify(elements, begin, 0, j);
+        }
+    }
+
+    public static void heapSort(long[] elements) {
+        heapSort(elements, 0, elements.length);
+    }
+
+    private static void swap(long[] elements, int i, int j) {
+        long temp = elements[i];
+        elements[i] = elements[j];
+        elements[j] = temp;
+        SortProbe.moved(2);
+    }
+
+    private static long partition3(long[] elements, int begin, int end) {
+        long x = elements[begin + ThreadLocalRandom.current().nextInt(end - begin)];
+        int less = begin, i = begin, greater = end;
+        while (i < greater) {
+            if (SortProbe.compared(elements[i] < x)) swap(elements, less++, i++);
+            else if (SortProbe.compared(elements[i] > x)) swap(elements, i, --greater);
+            else i++;
+        }
+        return (long) less << 32 | greater;
+    }
+
+    private static void quickSort(long[] elements, int begin, int end, int depth) {
+        SortProbe.enter();
+        while (end - begin > INSERTION_SORT_THRESHOLD) {
+            if (depth-- == 0) {
+                heapSort(elements, begin, end);
+                SortProbe.exit();
+                return;
+            }
+            long bounds = partition3(elements, begin, end);
+            int less = (int) (bounds >>> 32), greater = (int) bounds;
+            if (less - begin < end - greater) {
+                quickSort(elements, begin, less, depth);
+                begin = greater;
+            }
+            else {
+                quickSort(elements, greater, end, depth);
+                end = less;
+            }
+        }
+        insertionSort(elements, begin, end);
+        SortProbe.exit();
+    }
+
+    public static void quickSort(long[] elements) {
+        quickSort(elements, 0, elements.length, depthLimit(elements.length));
+    }
+
+    // double[] and float[] are sorted as long[] and int[] of keys that order like Double.compare and Float.compare:
+    // -0.0 goes before 0.0 and NaN after positive infinity. NaN payloads are not preserved.
+    // Every method allocates an O(n) key array, so insertionSort and heapSort for double[] and float[]
+    // are not in place, unlike their int[] and long[] versions.
+
+    private static void sortAsLongs(double[] elements, Consumer<long[]> sort) {
+        long[] keys = new long[elements.length];
+        SortProbe.allocated(8L * elements.length);
+        for (int i = 0; i < elements.length; i++) {
+            long bits = Double.doubleToLongBits(elements[i]);
+            keys[i] = bits ^ (bits >> 63) & Long.MAX_VALUE;
+        }
+        sort.accept(keys);
+        for (int i = 0; i < elements.length; i++) {
+            long key = keys[i];
+            elements[i] = Double.longBitsToDouble(key ^ (key >> 63) & Long.MAX_VALUE);
+        }
+    }
+
+    private static void sortAsInts(float[] elements, Consumer<int[]> sort) {
+        int[] keys = new int[elements.length];
+        SortProbe.allocated(4L * elements.length);
+        for (int i = 0; i < elements.length; i++) {
+            int bits = Float.floatToIntBits(elements[i]);
+            keys[i] = bits ^ (bits >> 31) & Integer.MAX_VALUE;
+        }
+        sort.accept(keys);
+        for (int i = 0; i < elements.length; i++) {
+            int key = keys[i];
+            elements[i] = Float.intBitsToFloat(key ^ (key >> 31) & Integer.MAX_VALUE);
+        }
+    }
+
+    public static void insertionSort(double[] elements) {
+        sortAsLongs(elements, Sorts::insertionSort);
+    }
+
+    public static void mergeSort(double[] elements) {
+        sortAsLongs(elements, Sorts::mergeSort);
+    }
+
+    public static void heapSort(double[] elements) {
+        sortAsLongs(elements, Sorts::heapSort);
+    }
+
+    public static void quickSort(double[] elements) {
+        sortAsLongs(elements, Sorts::quickSort);
+    }
+
+    public static void insertionSort(float[] elements) {
+        sortAsInts(elements, Sorts::insertionSort);
+    }
+
+    public static void mergeSort(float[] elements) {
+        sortAsInts(elements, Sorts::mergeSort);
+    }
+
+    public static void heapSort(float[] elements) {
+        sortAsInts(elements, Sorts::heapSort);
+    }
+
+    public static void quickSort(float[] elements) {
+        sortAsInts(elements, Sorts::quickSort);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,106 @@
+package lesson2;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Индекс общих подстрок набора документов.
+ * <p>
+ * Обобщённый суффиксный автомат всех документов и число документов для каждого его состояния
+ * строятся один раз при создании индекса, после чего любое число запросов "наибольшая подстрока,
+ * общая хотя бы для k документов" отвечается одним проходом по состояниям.
+ * Для попарных запросов суффиксный автомат каждого документа строится при первом обращении и
+ * переиспользуется во всех последующих.
+ */
+public class CommonSubstringIndex {
+
+    private final List<String> documents;
+    private final SuffixAutomaton automaton;
+    private final int[] documentCount;
+    private final SuffixAutomaton[] documentAutomata;
+
+    // Пусть L - суммарная длина документов.
+    // Быстродействие: O(L * sqrt(L)) в худшем случае на подсчёт документов по состояниям,
+    //                 O(L) для типичных текстов
+    // Ресурсоемкость: O(L), около 110 байт на символ для текстовых документов (см. SuffixAutomaton),
+    //                 плюс автоматы документов, уже участвовавших в попарных запросах
+    public CommonSubstringIndex(List<String> documents) {
+        this.documents = new ArrayList<>(documents);
+        this.automaton = new SuffixAutomaton(this.documents);
+        this.documentCount = automaton.countTexts(this.documents);
+        this.documentAutomata = new SuffixAutomaton[this.documents.size()];
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    /**
+     * Наибольшая подстрока, встречающаяся хотя бы в k документах.
+     * Если таких подстрок несколько, возвращается та, чьё первое вхождение раньше
+     * (сначала по номеру документа, затем по позиции в нём). Если общих подстрок нет, возвращается пустая строка.
+     */
+    // Быстродействие: O(L)
+    public String longestCommonSubstring(int k) {
+        if (k < 1 || k > documents.size()) {
+            throw new IllegalArgumentException("k must be between 1 and " + documents.size() + ", got " + k);
+        }
+        int best = 0;
+        for (int state = 1; state < automaton.size(); state++) {
+            if (documentCount[state] < k) continue;
+            if (best == 0 || automaton.length(state) > automaton.length(best) ||
+                automaton.length(state) == automaton.length(best) && isEarlier(state, best)) {
+                best = state;
+            }
+        }
+        if (best == 0) return "";
+        int end = automaton.firstEnd(best);
+        return documents.get(automaton.firstText(best)).substring(end - automaton.length(best), end);
+    }
+
+    // Наибольшая подстрока, общая для всех документов
+    public String longestCommonSubstring() {
+        return longestCommonSubstring(documents.size());
+    }
+
+    private boolean isEarlier(int state, int other) {
+        int text = automaton.firstText(state), otherText = automaton.firstText(other);
+        return text < otherText || text == otherText && automaton.firstEnd(state) < automaton.firstEnd(other);
+    }
+
+    /**
+     * Наибольшая общая подстрока документов first и second с тем же правилом выбора,
+     * что и JavaAlgorithms.longestCommonSubstring: среди равных по длине -- самая ранняя в документе first.
+     */
+    // Пусть n - длина документа first, m - длина документа second.
+    // Быстродействие: O(n), плюс O(m) при первом обращении к документу second
+    public String longestCommonSubstring(int first, int second) {
+        long match = automatonOf(second).longestCommonSubstring(documents.get(first));
+        int end = (int) (match >>> 32), length = (int) match;
+        return documents.get(first).substring(end - length, end);
+    }
+
+    /**
+     * Наибольшие общие подстроки всех пар документов: элемент [i][j] равен longestCommonSubstring(i, j).
+     */
+    // Быстродействие: O(N * L)
+    public String[][] pairwiseLongestCommonSubstrings() {
+        int n = documents.size();
+        String[][] result = new String[n][n];
+        for (int j = 0; j < n; j++) {
+            for (int i = 0; i < n; i++) {
+                result[i][j] = i == j ? documents.get(i) : longestCommonSubstring(i, j);
+            }
+        }
+        return result;
+    }
+
+    private SuffixAutomaton automatonOf(int document) {
+        SuffixAutomaton result = documentAutomata[document];
+        if (result == null) {
+            result = new SuffixAutomaton(documents.get(document));
+            documentAutomata[document] = result;
+        }
+        return result;
+    }
+}
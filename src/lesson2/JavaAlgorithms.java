@@ -2,10 +2,13 @@ package lesson2;
 
 import kotlin.NotImplementedError;
 import kotlin.Pair;
+import lesson1.LongIntHashMap;
 
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
 
 @SuppressWarnings("unused")
 public class JavaAlgorithms {
@@ -101,6 +104,39 @@ public class JavaAlgorithms {
      * Если имеется несколько самых длинных общих подстрок одной длины,
      * вернуть ту из них, которая встречается раньше в строке first.
      */
+    static public String longestCommonSubstring(String first, String second) {
+        //return binarySearchLongestCommonSubstring(first, second);
+        //return rollingHashLongestCommonSubstring(first, second);
+        return suffixAutomatonLongestCommonSubstring(first, second);
+    }
+
+    // Пусть n - длина первой строки, m - длина второй строки.
+    // Суффиксный автомат строится по второй строке, первая строка проходит по нему один раз,
+    // на каждом символе поддерживается длина наибольшего совпадения, оканчивающегося в этом символе.
+    // Первый максимум по ходу первой строки и есть самая ранняя из самых длинных общих подстрок.
+    // Быстродействие: O(n + m) (переход ищется в хэш-таблице за O(1) в среднем)
+    // Ресурсоемкость: O(m), на случайных и текстовых строках 88-95 байт на символ второй строки (см. SuffixAutomaton)
+    static public String suffixAutomatonLongestCommonSubstring(String first, String second) {
+        long match = new SuffixAutomaton(second).longestCommonSubstring(first);
+        int end = (int) (match >>> 32), length = (int) match;
+        return first.substring(end - length, end);
+    }
+
+    /**
+     * Наибольшая общая подстрока нескольких строк: самая длинная подстрока, встречающаяся во всех строках documents.
+     * Если таких подстрок несколько, вернуть ту, которая раньше встречается в первой строке.
+     * Если общих подстрок нет, вернуть пустую строку.
+     * Для многократных запросов к одному набору строк (общая подстрока любых k строк, попарные запросы)
+     * следует один раз построить CommonSubstringIndex.
+     */
+    // Пусть L - суммарная длина строк.
+    // Быстродействие: O(L) для типичных текстов (см. CommonSubstringIndex)
+    // Ресурсоемкость: O(L)
+    static public String longestCommonSubstring(List<String> documents) {
+        if (documents.isEmpty()) return "";
+        return new CommonSubstringIndex(documents).longestCommonSubstring();
+    }
+
     // Пусть n - длина первой строки, m - длина второй строки.
     // Наихудшее быстродействие: O((n + m) * min(n,m)) * log(min(n,m)))
     //                           (Заполнение set'a * substring + перебор подстрок первой строки * substring) *
@@ -113,7 +149,7 @@ public class JavaAlgorithms {
     //                           Улучшить ресурсоемкость можно, сохраняя не сами подстроки, а их хэши, но такой
     //                           подход требует защиты от коллизий.
 
-    static public String longestCommonSubstring(String first, String second) {
+    static public String binarySearchLongestCommonSubstring(String first, String second) {
         boolean flag = false;
         int end = Math.min(first.length(), second.length());
         int start = 1;
@@ -154,6 +190,151 @@ public class JavaAlgorithms {
         }
     }
 
+    private static final long HASH_MODULUS_1 = 2147483647L;
+    private static final long HASH_MODULUS_2 = 2147483629L;
+
+    // Пусть n - длина первой строки, m - длина второй строки, p = min(n, m).
+    // Тот же бинарный поиск по длине, но вместо множества подстрок -- таблица их 64-битных полиномиальных хэшей
+    // (по двум простым модулям, основания выбираются случайно) с позициями вхождений.
+    // Таблица строится по более короткой строке и переиспользуется во всех раундах;
+    // каждое совпадение хэшей проверяется посимвольно (regionMatches) с позициями, уже записанными в таблицу,
+    // поэтому результат всегда точный.
+    // Быстродействие: O(n + m) на хэши в раунде плюс O(length) на каждое совпадение хэшей:
+    //                 O((n + m) * log(p)) при редких совпадениях, до O((n + m) * p * log(p)) на строках
+    //                 из сплошных повторов (например, из одной буквы)
+    // Ресурсоемкость: O(p), от 20 до 36 байт на символ короткой строки
+    static public String rollingHashLongestCommonSubstring(String first, String second) {
+        boolean firstIndexed = first.length() <= second.length();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long base1 = random.nextLong(Character.MAX_VALUE + 1L, HASH_MODULUS_1);
+        long base2 = random.nextLong(Character.MAX_VALUE + 1L, HASH_MODULUS_2);
+        SubstringHashTable table = new SubstringHashTable(firstIndexed ? first : second);
+
+        int low = 0, high = Math.min(first.length(), second.length()), start = 0;
+        while (low < high) {
+            int length = (low + high + 1) >>> 1;
+            table.build(length, base1, base2);
+            int found = firstIndexed
+                    ? earliestInIndexed(second, length, table, base1, base2)
+                    : earliestInScanned(first, length, table, base1, base2);
+            if (found >= 0) {
+                low = length;
+                start = found;
+            }
+            else high = length - 1;
+        }
+        return first.substring(start, start + low);
+    }
+
+    // Таблица построена по first: самая ранняя позиция в first среди подстрок, встречающихся в second
+    private static int earliestInIndexed(String second, int length, SubstringHashTable table,
+                                         long base1, long base2) {
+        int best = Integer.MAX_VALUE;
+        RollingHash hash = new RollingHash(second, length, base1, base2);
+        while (best > 0 && hash.next()) {
+            int position = table.find(hash.value(), second, hash.position());
+            if (position >= 0 && position < best) best = position;
+        }
+        return best == Integer.MAX_VALUE ? -1 : best;
+    }
+
+    // Таблица построена по second: первая позиция в first, подстрока с которой встречается в second
+    private static int earliestInScanned(String first, int length, SubstringHashTable table,
+                                         long base1, long base2) {
+        RollingHash hash = new RollingHash(first, length, base1, base2);
+        while (hash.next()) {
+            if (table.find(hash.value(), first, hash.position()) >= 0) return hash.position();
+        }
+        return -1;
+    }
+
+    // Хэши всех подстрок длины length по порядку их начала
+    private static class RollingHash {
+        private final String string;
+        private final int length;
+        private final long base1;
+        private final long base2;
+        private long power1 = 1;
+        private long power2 = 1;
+        private long hash1 = 0;
+        private long hash2 = 0;
+        private int end = 0;
+
+        RollingHash(String string, int length, long base1, long base2) {
+            this.string = string;
+            this.length = length;
+            this.base1 = base1;
+            this.base2 = base2;
+            for (int i = 0; i < length; i++) {
+                power1 = power1 * base1 % HASH_MODULUS_1;
+                power2 = power2 * base2 % HASH_MODULUS_2;
+            }
+        }
+
+        boolean next() {
+            while (end < string.length()) {
+                char c = string.charAt(end);
+                hash1 = (hash1 * base1 + c) % HASH_MODULUS_1;
+                hash2 = (hash2 * base2 + c) % HASH_MODULUS_2;
+                if (end >= length) {
+                    char removed = string.charAt(end - length);
+                    hash1 = (hash1 + HASH_MODULUS_1 - removed * power1 % HASH_MODULUS_1) % HASH_MODULUS_1;
+                    hash2 = (hash2 + HASH_MODULUS_2 - removed * power2 % HASH_MODULUS_2) % HASH_MODULUS_2;
+                }
+                if (++end >= length) return true;
+            }
+            return false;
+        }
+
+        int position() {
+            return end - length;
+        }
+
+        long value() {
+            return hash1 << 32 | hash2;
+        }
+    }
+
+    // Подстроки длины length строки string по их хэшам: хэш -> первая позиция цепочки, next -> следующая.
+    // В цепочке хэша -- самые ранние вхождения различных подстрок с этим хэшем (больше одной только при коллизии),
+    // так что любое совпадение проверяется посимвольно с уже записанными позициями без поиска по строке.
+    private static class SubstringHashTable {
+        private final String string;
+        private final LongIntHashMap heads;
+        private final int[] next;
+        private int length;
+
+        SubstringHashTable(String string) {
+            this.string = string;
+            this.heads = new LongIntHashMap(string.length());
+            this.next = new int[string.length()];
+        }
+
+        void build(int length, long base1, long base2) {
+            this.length = length;
+            heads.clear();
+            RollingHash hash = new RollingHash(string, length, base1, base2);
+            while (hash.next()) {
+                int head = heads.get(hash.value(), -1);
+                if (matches(head, string, hash.position()) >= 0) continue;
+                next[hash.position()] = head;
+                heads.put(hash.value(), hash.position());
+            }
+        }
+
+        // Самая ранняя позиция в string подстроки other[from, from + length) с хэшем key или -1
+        int find(long key, String other, int from) {
+            return matches(heads.get(key, -1), other, from);
+        }
+
+        private int matches(int position, String other, int from) {
+            for (; position >= 0; position = next[position]) {
+                if (string.regionMatches(position, other, from, length)) return position;
+            }
+            return -1;
+        }
+    }
+
     /**
      * Число простых чисел в интервале
      * Простая
@@ -165,10 +346,79 @@ public class JavaAlgorithms {
      * Единица простым числом не считается.
      */
 
+    static public int calcPrimesNumber(int limit) {
+        //return simpleSieveCalcPrimesNumber(limit);
+        //return tableCalcPrimesNumber(limit);
+        return segmentedSieveCalcPrimesNumber(limit);
+    }
+
+    private static final PrimeTable primeTable = new PrimeTable();
+
+    // Общая таблица простых (см. PrimeTable) просеивается один раз до наибольшего запрошенного limit.
+    // Быстродействие: O(1) для limit в пределах таблицы
+    // Ресурсоемкость: O(n) бит на всё время работы
+    static public int tableCalcPrimesNumber(int limit) {
+        return primeTable.countPrimes(limit);
+    }
+
+    // Сегментированное решето по нечётным числам с битовой упаковкой (см. PrimeSieve),
+    // отрезки размером с кэш L2 просеиваются параллельно.
+    // Быстродействие: O(nlog(log(n)) / число ядер
+    // Ресурсоемкость: O(sqrt(n)) на простые до корня + 256 Кбайт на поток
+
+    static public int segmentedSieveCalcPrimesNumber(int limit) {
+        return (int) PrimeSieve.countPrimes(limit);
+    }
+
+    private static final int SIEVE_COUNT_THRESHOLD = 1 << 16;
+
+    // Наибольший поддерживаемый limit: массивы занимают 2 * 8 * sqrt(10^13) ~ 50 Мбайт, счёт -- около 10 секунд.
+    // Для 10^14 понадобилось бы ~160 Мбайт и около минуты, дальше массивы быстро перестают помещаться в кучу
+    static final long MAX_PRIME_COUNT_LIMIT = 10_000_000_000_000L;
+
+    /**
+     * Число простых чисел в интервале от 1 до limit (включительно) для limit, не помещающихся в int.
+     * Если limit <= 1, вернуть результат 0.
+     * Поддерживаются limit до MAX_PRIME_COUNT_LIMIT = 10^13, для больших бросается IllegalArgumentException.
+     */
+    // Алгоритм Lucy_Hedgehog: S(v) -- количество чисел из [2, v], не вычеркнутых простыми меньше p.
+    // Нужны только v вида n / i, их не больше 2 sqrt(n): для v <= sqrt(n) значения хранятся в small[v],
+    // для остальных -- в large[n / v]. Для каждого простого p <= sqrt(n) и каждого v >= p * p
+    // S(v) -= S(v / p) - S(p - 1); в конце S(n) = pi(n).
+    // Небольшие limit считаются решетом.
+    // Быстродействие: O(n^(3/4))
+    // Ресурсоемкость: O(sqrt(n))
+    static public long calcPrimesNumber(long limit) {
+        if (limit <= SIEVE_COUNT_THRESHOLD) return PrimeSieve.countPrimes(limit);
+        if (limit > MAX_PRIME_COUNT_LIMIT) throw new IllegalArgumentException("Limit is too large: " + limit);
+        int r = (int) PrimeSieve.sqrt(limit);
+        long[] small = new long[r + 1];
+        long[] large = new long[r + 1];
+        for (int v = 1; v <= r; v++) {
+            small[v] = v - 1;
+            large[v] = limit / v - 1;
+        }
+        for (int p = 2; p <= r; p++) {
+            if (small[p] == small[p - 1]) continue;
+            long countBelow = small[p - 1];
+            long square = (long) p * p;
+            int largeEnd = (int) Math.min(r, limit / square);
+            for (int i = 1; i <= largeEnd; i++) {
+                long ip = (long) i * p;
+                long quotient = ip <= r ? large[(int) ip] : small[(int) (limit / ip)];
+                large[i] -= quotient - countBelow;
+            }
+            for (int v = r; v >= square; v--) {
+                small[v] -= small[v / p] - countBelow;
+            }
+        }
+        return large[1];
+    }
+
     // Быстродействие: O(nlog(log(n))
     // Ресурсоемкость: O(n)
 
-    static public int calcPrimesNumber(int limit) {
+    static public int simpleSieveCalcPrimesNumber(int limit) {
         int counter = 0;
         if (limit <= 1) return 0;
         boolean[] primes = new boolean[limit - 1];
@@ -0,0 +1,100 @@
+package lesson2;
+
+import java.util.Arrays;
+import java.util.stream.LongStream;
+
+/**
+ * Сегментированное решето Эратосфена по нечётным числам.
+ * <p>
+ * Хранятся только нечётные числа, по одному биту на число: бит с индексом i соответствует числу 2i + 1,
+ * установленный бит означает составное число (или единицу). Решето проходит отрезками по SEGMENT_BITS бит
+ * (256 Кбайт -- отрезок помещается в кэш L2), вычёркивание кратных простого p начинается с p * p.
+ */
+final class PrimeSieve {
+
+    static final int SEGMENT_BITS = 1 << 21;
+
+    private static final ThreadLocal<long[]> segment = ThreadLocal.withInitial(() -> new long[SEGMENT_BITS >>> 6]);
+
+    private PrimeSieve() {
+    }
+
+    // Наибольший корень, квадрат которого помещается в long
+    private static final long MAX_LONG_ROOT = 3037000499L;
+
+    // Наибольшее s, для которого s * s <= n. Проверки не переполняются при любом n
+    static long sqrt(long n) {
+        long s = Math.min((long) Math.sqrt((double) n), MAX_LONG_ROOT);
+        while (s * s > n) s--;
+        while (s + 1 <= n / (s + 1)) s++;
+        return s;
+    }
+
+    // Нечётные простые числа, не превосходящие limit, по возрастанию
+    static int[] oddPrimesUpTo(int limit) {
+        if (limit < 3) return new int[0];
+        boolean[] composite = new boolean[(limit + 1) / 2];
+        int count = 0;
+        for (int i = 1; i < composite.length; i++) {
+            if (composite[i]) continue;
+            count++;
+            int p = 2 * i + 1;
+            for (long j = ((long) p * p - 1) / 2; j < composite.length; j += p) {
+                composite[(int) j] = true;
+            }
+        }
+        int[] primes = new int[count];
+        for (int i = 1, k = 0; i < composite.length; i++) {
+            if (!composite[i]) primes[k++] = 2 * i + 1;
+        }
+        return primes;
+    }
+
+    static void sieve(long[] bits, long from, int count, int[] oddPrimes) {
+        sieve(bits, 0, from, count, oddPrimes);
+    }
+
+    // Отмечает в bits, начиная со слова offset, составные нечётные числа (и единицу) с индексами [from, from + count).
+    // oddPrimes должен содержать все нечётные простые до корня из наибольшего числа отрезка
+    static void sieve(long[] bits, int offset, long from, int count, int[] oddPrimes) {
+        Arrays.fill(bits, offset, offset + ((count + 63) >>> 6), 0L);
+        long lowNumber = 2 * from + 1;
+        long highNumber = 2 * (from + count) - 1;
+        for (int p : oddPrimes) {
+            long start = (long) p * p;
+            if (start > highNumber) break;
+            if (start < lowNumber) {
+                start = (lowNumber + p - 1) / p * p;
+                if ((start & 1) == 0) start += p;
+            }
+            for (long j = (start - 1) / 2 - from; j < count; j += p) {
+                bits[offset + (int) (j >>> 6)] |= 1L << j;
+            }
+        }
+        if (from == 0) bits[offset] |= 1L;
+    }
+
+    // Число неотмеченных бит среди первых count
+    static int countClear(long[] bits, int count) {
+        int marked = 0;
+        for (int i = 0, words = (count + 63) >>> 6; i < words; i++) {
+            marked += Long.bitCount(bits[i]);
+        }
+        return count - marked;
+    }
+
+    // Число простых чисел, не превосходящих limit. Отрезки решета обрабатываются параллельно
+    static long countPrimes(long limit) {
+        if (limit < 2) return 0;
+        long odds = (limit + 1) / 2;
+        int[] oddPrimes = oddPrimesUpTo((int) sqrt(limit));
+        long segments = (odds + SEGMENT_BITS - 1) / SEGMENT_BITS;
+        return 1 + LongStream.range(0, segments).parallel().map(s -> {
+            long from = s * SEGMENT_BITS;
+            int count = (int) Math.min(SEGMENT_BITS, odds - from);
+            long[] bits = segment.get();
+            sieve(bits, from, count, oddPrimes);
+            return countClear(bits, count);
+        }).sum();
+    }
+}
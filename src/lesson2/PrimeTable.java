@@ -0,0 +1,171 @@
+package lesson2;
+
+import java.io.IOException;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.IntStream;
+
+/**
+ * Таблица простых чисел для многократных запросов pi(x) -- числа простых, не превосходящих x.
+ * <p>
+ * Хранит битовое решето нечётных чисел (как в PrimeSieve) и накопленное число простых перед каждым блоком
+ * из BLOCK_NUMBERS чисел, поэтому запрос стоит одно обращение к индексу и не больше BLOCK_WORDS подсчётов бит.
+ * При запросе за пределами таблицы решето досчитывается только для новых чисел (не меньше чем вдвое),
+ * уже просеянная часть не пересчитывается. Таблицу можно сохранить в файл и открыть его отображением в память:
+ * загрузка не читает файл целиком, запросы сразу отвечаются по отображённым страницам.
+ * <p>
+ * Формат файла: MAGIC (long), число блоков (int), резерв (int), слова решета (long), индекс блоков (int),
+ * порядок байт -- BIG_ENDIAN.
+ */
+public class PrimeTable {
+
+    private static final long MAGIC = 0x5052494D45544142L;
+    private static final int HEADER_BYTES = 16;
+
+    private static final int BLOCK_NUMBERS = 4096;
+    private static final int BLOCK_BITS = BLOCK_NUMBERS / 2;
+    private static final int BLOCK_WORDS = BLOCK_BITS >>> 6;
+    // блоков достаточно, чтобы покрыть все положительные int
+    private static final int MAX_BLOCKS = (int) ((Integer.MAX_VALUE + 1L) / BLOCK_NUMBERS);
+
+    private int blocks = 0;
+    // бит i -- число 2i + 1, установлен у составных и единицы
+    private LongBuffer bits = LongBuffer.allocate(0);
+    // число нечётных простых в блоках перед данным
+    private IntBuffer counts = IntBuffer.allocate(0);
+
+    public PrimeTable() {
+    }
+
+    public PrimeTable(int limit) {
+        ensureLimit(limit);
+    }
+
+    // Наибольшее число, покрытое таблицей
+    public synchronized int limit() {
+        return (int) ((long) blocks * BLOCK_NUMBERS - 1);
+    }
+
+    /**
+     * Число простых чисел в интервале от 1 до limit (включительно), как JavaAlgorithms.calcPrimesNumber.
+     */
+    // Быстродействие: O(1) в пределах таблицы, иначе O(n log(log(n))) для новых чисел
+    public synchronized int countPrimes(int limit) {
+        if (limit < 2) return 0;
+        ensureLimit(limit);
+        int index = (limit - 1) / 2;
+        int block = index / BLOCK_BITS;
+        int result = 1 + counts.get(block);
+        int last = index >>> 6;
+        for (int w = block * BLOCK_WORDS; w < last; w++) {
+            result += 64 - Long.bitCount(bits.get(w));
+        }
+        int tail = (index & 63) + 1;
+        result += tail - Long.bitCount(bits.get(last) & (-1L >>> (64 - tail)));
+        return result;
+    }
+
+    public synchronized boolean isPrime(int n) {
+        if (n < 3) return n == 2;
+        if ((n & 1) == 0) return false;
+        ensureLimit(n);
+        int index = n >>> 1;
+        return (bits.get(index >>> 6) & 1L << index) == 0;
+    }
+
+    private static int blocksFor(int limit) {
+        return (int) (((long) limit + BLOCK_NUMBERS) / BLOCK_NUMBERS);
+    }
+
+    private void ensureLimit(int limit) {
+        int required = blocksFor(limit);
+        if (required <= blocks) return;
+        grow(Math.max(required, (int) Math.min(MAX_BLOCKS, 2L * blocks)));
+    }
+
+    private void grow(int newBlocks) {
+        int oldBlocks = blocks;
+        long[] newBits = new long[newBlocks * BLOCK_WORDS];
+        int[] newCounts = new int[newBlocks];
+        bits.get(0, newBits, 0, oldBlocks * BLOCK_WORDS);
+        counts.get(0, newCounts, 0, oldBlocks);
+
+        long from = (long) oldBlocks * BLOCK_BITS;
+        long to = (long) newBlocks * BLOCK_BITS;
+        int[] oddPrimes = PrimeSieve.oddPrimesUpTo((int) PrimeSieve.sqrt(2 * to - 1));
+        int segments = (int) ((to - from + PrimeSieve.SEGMENT_BITS - 1) / PrimeSieve.SEGMENT_BITS);
+        IntStream.range(0, segments).parallel().forEach(s -> {
+            long segmentFrom = from + (long) s * PrimeSieve.SEGMENT_BITS;
+            int count = (int) Math.min(PrimeSieve.SEGMENT_BITS, to - segmentFrom);
+            PrimeSieve.sieve(newBits, (int) (segmentFrom >>> 6), segmentFrom, count, oddPrimes);
+        });
+
+        for (int b = Math.max(1, oldBlocks); b < newBlocks; b++) {
+            int clear = BLOCK_BITS;
+            for (int w = (b - 1) * BLOCK_WORDS; w < b * BLOCK_WORDS; w++) {
+                clear -= Long.bitCount(newBits[w]);
+            }
+            newCounts[b] = newCounts[b - 1] + clear;
+        }
+
+        bits = LongBuffer.wrap(newBits);
+        counts = IntBuffer.wrap(newCounts);
+        blocks = newBlocks;
+    }
+
+    private static long fileSize(int blocks) {
+        return HEADER_BYTES + (long) blocks * BLOCK_WORDS * Long.BYTES + (long) blocks * Integer.BYTES;
+    }
+
+    // Ресурсоемкость файла: около n / 16 байт.
+    // Таблица пишется во временный файл рядом с path и затем переименовывается в path: загруженная таблица
+    // может быть отображением того же файла, и его перезапись на месте испортила бы её данные.
+    public synchronized void save(Path path) throws IOException {
+        Path directory = path.toAbsolutePath().getParent();
+        Path temp = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileSize(blocks));
+                buffer.putLong(MAGIC).putInt(blocks).putInt(0);
+                buffer.asLongBuffer().put(bits.duplicate().rewind());
+                buffer.position(buffer.position() + blocks * BLOCK_WORDS * Long.BYTES);
+                buffer.asIntBuffer().put(counts.duplicate().rewind());
+                buffer.force();
+            }
+            try {
+                Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    // Быстродействие: O(1), страницы файла читаются по мере обращения к ним
+    public static PrimeTable load(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES) throw new IOException("Not a prime table: " + path);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            int blocks = buffer.getLong() == MAGIC ? buffer.getInt() : -1;
+            if (blocks < 0 || blocks > MAX_BLOCKS || size != fileSize(blocks)) {
+                throw new IOException("Not a prime table: " + path);
+            }
+            buffer.position(HEADER_BYTES);
+            PrimeTable table = new PrimeTable();
+            table.bits = buffer.slice().asLongBuffer().limit(blocks * BLOCK_WORDS);
+            table.counts = buffer.position(HEADER_BYTES + blocks * BLOCK_WORDS * Long.BYTES).slice()
+                    .asIntBuffer().limit(blocks);
+            table.blocks = blocks;
+            return table;
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package lesson2;
+
+import lesson1.LongIntHashMap;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Суффиксный автомат строки: минимальный детерминированный автомат, принимающий все её подстроки.
+ * <p>
+ * Для строки длины m в нём не больше 2m состояний и 3m переходов, строится он за O(m).
+ * Автомат нескольких строк (обобщённый) принимает подстроки каждой из них и строится за их суммарную длину.
+ * Переходы хранятся в LongIntHashMap (состояние, символ) -> состояние, а списки рёбер каждого состояния
+ * (только символы) -- в общих массивах: они нужны для копирования переходов при клонировании состояния.
+ * <p>
+ * Память: массивы состояний заводятся на 2m + 1 состояний -- 24 байта на символ на длину, ссылку и первое ребро,
+ * ещё 16 байт на символ на первые вхождения в автомате нескольких текстов; 6 байт на ребро
+ * и 12 байт на ячейку таблицы переходов (от 4/3 до 8/3 ячеек на ребро).
+ * Переходов получается от 2 до 2.75 на символ, так что на строках из 4 млн символов (случайных и из слов)
+ * автомат одной строки занимает 88-95 байт на символ, автомат нескольких текстов с числом текстов
+ * по состояниям (CommonSubstringIndex) -- около 110 байт на символ.
+ */
+class SuffixAutomaton {
+
+    private final int[] length;
+    private final int[] link;
+    private final int[] firstEdge;
+    // первое вхождение строк состояния: номер текста и конец вхождения,
+    // хранится только в автомате, построенном по списку текстов
+    private final int[] firstText;
+    private final int[] firstEnd;
+    private int size = 1;
+    private int last = 0;
+
+    // списки рёбер состояний (следующее ребро и символ), цель перехода хранится в transitions
+    private int[] edgeNext;
+    private char[] edgeChar;
+    private int edges = 0;
+
+    // (state << 16 | c) -> состояние, в которое ведёт переход
+    private final LongIntHashMap transitions;
+
+    SuffixAutomaton(CharSequence text) {
+        this(List.of(text), false);
+    }
+
+    SuffixAutomaton(List<? extends CharSequence> texts) {
+        this(texts, true);
+    }
+
+    private SuffixAutomaton(List<? extends CharSequence> texts, boolean firstOccurrences) {
+        long totalLength = 0;
+        for (CharSequence text : texts) {
+            totalLength += text.length();
+        }
+        if (totalLength > (Integer.MAX_VALUE - 1) / 2) throw new IllegalArgumentException("Texts are too long");
+        int capacity = (int) (2 * totalLength + 1);
+        length = new int[capacity];
+        link = new int[capacity];
+        firstEdge = new int[capacity];
+        firstText = firstOccurrences ? new int[capacity] : null;
+        firstEnd = firstOccurrences ? new int[capacity] : null;
+        Arrays.fill(firstEdge, -1);
+        link[0] = -1;
+
+        // переходов обычно около полутора на символ (и не больше трёх),
+        // массивы рёбер и таблица переходов растут по мере надобности
+        int expectedEdges = (int) Math.max(16, totalLength + totalLength / 2);
+        edgeNext = new int[expectedEdges];
+        edgeChar = new char[expectedEdges];
+        transitions = new LongIntHashMap(expectedEdges);
+
+        for (int t = 0; t < texts.size(); t++) {
+            CharSequence text = texts.get(t);
+            last = 0;
+            for (int i = 0; i < text.length(); i++) {
+                extend(text.charAt(i), t, i + 1);
+            }
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    int length(int state) {
+        return length[state];
+    }
+
+    int link(int state) {
+        return link[state];
+    }
+
+    int firstText(int state) {
+        return firstText[state];
+    }
+
+    int firstEnd(int state) {
+        return firstEnd[state];
+    }
+
+    private static long key(int state, char c) {
+        return (long) state << 16 | c;
+    }
+
+    // Переход из state по символу c или -1, если его нет
+    int transition(int state, char c) {
+        return transitions.get(key(state, c), -1);
+    }
+
+    private void addTransition(int state, char c, int target) {
+        if (edges == edgeChar.length) {
+            int newCapacity = edges + (edges >> 1);
+            edgeNext = Arrays.copyOf(edgeNext, newCapacity);
+            edgeChar = Arrays.copyOf(edgeChar, newCapacity);
+        }
+        edgeNext[edges] = firstEdge[state];
+        edgeChar[edges] = c;
+        firstEdge[state] = edges++;
+        transitions.put(key(state, c), target);
+    }
+
+    private int split(int p, char c, int q) {
+        int clone = size++;
+        length[clone] = length[p] + 1;
+        link[clone] = link[q];
+        if (firstText != null) {
+            firstText[clone] = firstText[q];
+            firstEnd[clone] = firstEnd[q];
+        }
+        for (int e = firstEdge[q]; e != -1; e = edgeNext[e]) {
+            addTransition(clone, edgeChar[e], transition(q, edgeChar[e]));
+        }
+        for (; p != -1 && transition(p, c) == q; p = link[p]) {
+            transitions.put(key(p, c), clone);
+        }
+        link[q] = clone;
+        return clone;
+    }
+
+    private void extend(char c, int text, int end) {
+        // в обобщённом автомате переход может уже существовать, если строка встречалась в прежних текстах
+        int existing = transition(last, c);
+        if (existing >= 0) {
+            last = length[last] + 1 == length[existing] ? existing : split(last, c, existing);
+            return;
+        }
+        int current = size++;
+        length[current] = length[last] + 1;
+        if (firstText != null) {
+            firstText[current] = text;
+            firstEnd[current] = end;
+        }
+        int p = last;
+        while (p != -1 && transition(p, c) < 0) {
+            addTransition(p, c, current);
+            p = link[p];
+        }
+        if (p == -1) {
+            link[current] = 0;
+        }
+        else {
+            int q = transition(p, c);
+            if (length[p] + 1 == length[q]) {
+                link[current] = q;
+            }
+            else {
+                link[current] = split(p, c, q);
+            }
+        }
+        last = current;
+    }
+
+    // Для каждого состояния -- число текстов, в которых встречаются его строки.
+    // Каждый префикс текста поднимается по суффиксным ссылкам до состояния, уже отмеченного этим текстом.
+    int[] countTexts(List<? extends CharSequence> texts) {
+        int[] count = new int[size];
+        int[] marked = new int[size];
+        Arrays.fill(marked, -1);
+        for (int t = 0; t < texts.size(); t++) {
+            CharSequence text = texts.get(t);
+            int state = 0;
+            for (int i = 0; i < text.length(); i++) {
+                state = transition(state, text.charAt(i));
+                for (int s = state; s > 0 && marked[s] != t; s = link[s]) {
+                    marked[s] = t;
+                    count[s]++;
+                }
+            }
+        }
+        return count;
+    }
+
+    // Наибольшая подстрока text, являющаяся подстрокой строки автомата, среди равных по длине -- самая ранняя.
+    // Возвращает (конец << 32 | длина)
+    long longestCommonSubstring(CharSequence text) {
+        int state = 0, matched = 0, best = 0, bestEnd = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            int next;
+            while ((next = transition(state, c)) < 0 && state != 0) {
+                state = link[state];
+                matched = length[state];
+            }
+            if (next < 0) {
+                matched = 0;
+                continue;
+            }
+            state = next;
+            if (++matched > best) {
+                best = matched;
+                bestEnd = i + 1;
+            }
+        }
+        return (long) bestEnd << 32 | best;
+    }
+}
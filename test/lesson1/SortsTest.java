@@ -3,8 +3,12 @@ package lesson1;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 
+import java.util.Arrays;
 import java.util.Calendar;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Random;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -75,6 +79,34 @@ public class SortsTest {
         assertSorted(arr, "MERGE SORT LONG");
     }
 
+    @Test
+    @Tag("Example")
+    public void parallelMergeSort() {
+        int[] arr = new int[] { 3, 7, 5, 9, 1, 6, 19, 13 };
+        Sorts.parallelMergeSort(arr);
+        assertSorted(arr, "PARALLEL MERGE SORT");
+    }
+
+    @Test
+    @Tag("Example")
+    public void longParallelMergeSort() {
+        int LENGTH = 1 << 20;
+        int[] arr = new int[LENGTH];
+        for (int i=0; i<LENGTH; i++) {
+            arr[i] = r.nextInt();
+        }
+        int[] expected = arr.clone();
+        long start = System.nanoTime();
+        Arrays.parallelSort(expected);
+        long parallelSortTime = System.nanoTime() - start;
+        start = System.nanoTime();
+        Sorts.parallelMergeSort(arr);
+        long parallelMergeSortTime = System.nanoTime() - start;
+        assertArrayEquals(expected, arr);
+        System.out.println("parallelMergeSort: " + parallelMergeSortTime / 1000000 + " ms, " +
+                           "Arrays.parallelSort: " + parallelSortTime / 1000000 + " ms");
+    }
+
     @Test
     @Tag("Example")
     public void longHeapSort() {
@@ -87,6 +119,38 @@ public class SortsTest {
         assertSorted(arr, "HEAP SORT LONG");
     }
 
+    @Test
+    @Tag("Example")
+    public void longHeapSortKinds() {
+        int LENGTH = 65536;
+        for (Sorts.HeapKind kind : Sorts.HeapKind.values()) {
+            int[] arr = new int[LENGTH];
+            for (int i=0; i<LENGTH; i++) {
+                arr[i] = r.nextInt();
+            }
+            Sorts.heapSort(arr, kind);
+            assertSorted(arr, "HEAP SORT " + kind);
+        }
+    }
+
+    @Test
+    @Tag("Example")
+    public void partialHeapSort() {
+        int LENGTH = 65536;
+        int K = 100;
+        for (Sorts.HeapKind kind : Sorts.HeapKind.values()) {
+            int[] arr = new int[LENGTH];
+            for (int i=0; i<LENGTH; i++) {
+                arr[i] = r.nextInt(1000);
+            }
+            int[] expected = arr.clone();
+            Arrays.sort(expected);
+            Sorts.partialHeapSort(arr, K, kind);
+            assertArrayEquals(Arrays.copyOfRange(expected, LENGTH - K, LENGTH),
+                              Arrays.copyOfRange(arr, LENGTH - K, LENGTH));
+        }
+    }
+
     @Test
     @Tag("Example")
     public void quickSort() {
@@ -107,6 +171,109 @@ public class SortsTest {
         assertSorted(arr, "QUICK SORT LONG");
     }
 
+    @Test
+    @Tag("Example")
+    public void introSort() {
+        int[] arr = new int[] { 3, 7, 5, 9, 1, 6, 19, 13 };
+        Sorts.introSort(arr);
+        assertSorted(arr, "INTRO SORT");
+    }
+
+    @Test
+    @Tag("Example")
+    public void longIntroSort() {
+        int LENGTH = 65536;
+        int[] arr = new int[LENGTH];
+        for (int i=0; i<LENGTH; i++) {
+            arr[i] = r.nextInt();
+        }
+        Sorts.introSort(arr);
+        assertSorted(arr, "INTRO SORT LONG");
+    }
+
+    @Test
+    @Tag("Example")
+    public void adversarialIntroSort() {
+        int LENGTH = 1 << 20;
+        int[] equal = new int[LENGTH];
+        int[] sorted = new int[LENGTH];
+        int[] reversed = new int[LENGTH];
+        int[] fewValues = new int[LENGTH];
+        for (int i=0; i<LENGTH; i++) {
+            sorted[i] = i;
+            reversed[i] = LENGTH - i;
+            fewValues[i] = r.nextInt(3);
+        }
+        Sorts.introSort(equal);
+        assertSorted(equal, "INTRO SORT EQUAL");
+        Sorts.introSort(sorted);
+        assertSorted(sorted, "INTRO SORT SORTED");
+        Sorts.introSort(reversed);
+        assertSorted(reversed, "INTRO SORT REVERSED");
+        Sorts.introSort(fewValues);
+        assertSorted(fewValues, "INTRO SORT FEW VALUES");
+    }
+
+    @Test
+    @Tag("Example")
+    public void partialSortAndTopK() {
+        int LENGTH = 1 << 20;
+        int K = 1000;
+        int[] arr = new int[LENGTH];
+        for (int i=0; i<LENGTH; i++) {
+            arr[i] = r.nextInt(LENGTH);
+        }
+        int[] expected = arr.clone();
+        Arrays.sort(expected);
+
+        int[] top = Sorts.topK(arr, K);
+        for (int i=0; i<K; i++) {
+            assertEquals(expected[LENGTH - 1 - i], top[i]);
+        }
+
+        Sorts.partialSort(arr, K);
+        assertArrayEquals(Arrays.copyOf(expected, K), Arrays.copyOf(arr, K));
+    }
+
+    @Test
+    @Tag("Example")
+    public void longRadixSort() {
+        int LENGTH = 65536;
+        int[] arr = new int[LENGTH];
+        for (int i=0; i<LENGTH; i++) {
+            arr[i] = r.nextInt();
+        }
+        int[] expected = arr.clone();
+        Arrays.sort(expected);
+        Sorts.radixSort(arr);
+        assertArrayEquals(expected, arr);
+
+        int[] narrow = new int[LENGTH];
+        for (int i=0; i<LENGTH; i++) {
+            narrow[i] = r.nextInt(512) - 256;
+        }
+        expected = narrow.clone();
+        Arrays.sort(expected);
+        Sorts.radixSort(narrow);
+        assertArrayEquals(expected, narrow);
+    }
+
+    @Test
+    @Tag("Example")
+    public void longRadixSortLongs() {
+        int LENGTH = 65536;
+        long[] arr = new long[LENGTH];
+        for (int i=0; i<LENGTH; i++) {
+            arr[i] = r.nextLong();
+        }
+        arr[0] = Long.MIN_VALUE;
+        arr[1] = Long.MAX_VALUE;
+        long[] expected = arr.clone();
+        Arrays.sort(expected);
+        Sorts.radixSort(arr);
+        assertArrayEquals(expected, arr);
+    }
+
     @Test
     @Tag("Example")
     public void longCountingSort() {
@@ -121,4 +288,167 @@ public class SortsTest {
         Sorts.quickSort(arr);
         assertArrayEquals(arr, result);
     }
+
+    @Test
+    @Tag("Example")
+    public void longParallelCountingSort() {
+        int LENGTH = 1 << 20;
+        int LIMIT = 7740;
+        int[] arr = new int[LENGTH];
+        for (int i=0; i<LENGTH; i++) {
+            arr[i] = r.nextInt(LIMIT);
+        }
+        int[] result = Sorts.parallelCountingSort(arr, LIMIT - 1);
+        assertArrayEquals(Sorts.countingSort(arr, LIMIT - 1), result);
+    }
+
+    @Test
+    @Tag("Example")
+    public void longSampleSort() {
+        int LENGTH = 1 << 18;
+        String[] arr = new String[LENGTH];
+        for (int i=0; i<LENGTH; i++) {
+            arr[i] = Integer.toString(r.nextInt(LENGTH / 4));
+        }
+        String[] expected = arr.clone();
+        Arrays.sort(expected);
+        Sorts.sampleSort(arr);
+        assertArrayEquals(expected, arr);
+
+        Sorts.sampleSort(arr, Comparator.reverseOrder());
+        for (int i = 0; i < LENGTH; i++) {
+            assertEquals(expected[LENGTH - 1 - i], arr[i]);
+        }
+    }
+
+    @Test
+    @Tag("Example")
+    public void sortProbe() {
+        int LENGTH = 4096;
+        int[] arr = new int[LENGTH];
+        for (int i=0; i<LENGTH; i++) {
+            arr[i] = r.nextInt();
+        }
+        SortProbe.reset();
+        Sorts.quickSort(arr.clone());
+        SortProbe.Metrics quick = SortProbe.snapshot();
+        SortProbe.reset();
+        Sorts.mergeSort(arr.clone());
+        SortProbe.Metrics merge = SortProbe.snapshot();
+        if (!SortProbe.isEnabled()) {
+            assertEquals(new SortProbe.Metrics(0, 0, 0, 0), quick);
+            assertEquals(new SortProbe.Metrics(0, 0, 0, 0), merge);
+            return;
+        }
+        assertTrue(quick.comparisons() > 0 && quick.moves() > 0 && quick.maxDepth() > 0);
+        assertEquals(0, quick.allocatedBytes());
+        assertEquals(12, merge.maxDepth());
+        assertEquals(4L * LENGTH * 12, merge.allocatedBytes());
+        System.out.println("quickSort: " + quick + ", mergeSort: " + merge);
+
+        // The depth of the parallel sort must not depend on which tasks were stolen by which threads:
+        // 3 task levels (65536, 32768, 16384) and 8 levels of the sequential sort of 8192-element parts
+        int[] large = new int[1 << 16];
+        for (int i = 0; i < large.length; i++) {
+            large[i] = r.nextInt();
+        }
+        for (int i = 0; i < 20; i++) {
+            SortProbe.reset();
+            Sorts.parallelMergeSort(large.clone());
+            assertEquals(11, SortProbe.snapshot().maxDepth());
+        }
+    }
+
+    @Test
+    @Tag("Example")
+    public void longNaturalMergeSort() {
+        int LENGTH = 1 << 20;
+        int[] arr = new int[LENGTH];
+        for (int i=0; i<LENGTH; i++) {
+            arr[i] = r.nextInt();
+        }
+        Sorts.naturalMergeSort(arr);
+        assertSorted(arr, "NATURAL MERGE SORT LONG");
+
+        for (int i=0; i<LENGTH; i++) {
+            arr[i] = r.nextInt(1000) == 0 ? r.nextInt() : i;
+        }
+        int[] expected = arr.clone();
+        Arrays.sort(expected);
+        SortProbe.reset();
+        Sorts.naturalMergeSort(arr);
+        assertArrayEquals(expected, arr);
+        System.out.println("naturalMergeSort, nearly sorted: " + SortProbe.snapshot());
+
+        SortProbe.reset();
+        Sorts.naturalMergeSort(arr);
+        if (SortProbe.isEnabled()) {
+            assertEquals(new SortProbe.Metrics(LENGTH - 1, 0, 0, 0), SortProbe.snapshot());
+        }
+        for (int i=0; i<LENGTH / 2; i++) {
+            int temp = arr[i];
+            arr[i] = arr[LENGTH - 1 - i];
+            arr[LENGTH - 1 - i] = temp;
+        }
+        Sorts.naturalMergeSort(arr);
+        assertArrayEquals(expected, arr);
+    }
+
+    @Test
+    @Tag("Example")
+    public void naturalMergeSortStability() {
+        int LENGTH = 65536;
+        String[] arr = new String[LENGTH];
+        for (int i=0; i<LENGTH; i++) {
+            arr[i] = i % 100 == 0 ? Integer.toString(r.nextInt()) : Integer.toString(i);
+        }
+        String[] expected = arr.clone();
+        Comparator<String> byLength = Comparator.comparingInt(String::length);
+        Arrays.sort(expected, byLength);
+        Sorts.naturalMergeSort(arr, byLength);
+        assertArrayEquals(expected, arr);
+    }
+
+    @Test
+    @Tag("Example")
+    public void longPrimitiveSorts() {
+        int LENGTH = 16384;
+        long[] longs = new long[LENGTH];
+        double[] doubles = new double[LENGTH];
+        float[] floats = new float[LENGTH];
+        double[] special = { Double.NaN, -0.0, 0.0, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY };
+        for (int i=0; i<LENGTH; i++) {
+            longs[i] = r.nextLong();
+            doubles[i] = i % 10 == 0 ? special[r.nextInt(special.length)] : r.nextGaussian();
+            floats[i] = (float) doubles[i];
+        }
+        long[] expectedLongs = longs.clone();
+        double[] expectedDoubles = doubles.clone();
+        float[] expectedFloats = floats.clone();
+        Arrays.sort(expectedLongs);
+        Arrays.sort(expectedDoubles);
+        Arrays.sort(expectedFloats);
+
+        List<Consumer<long[]>> longSorts =
+                List.of(Sorts::insertionSort, Sorts::mergeSort, Sorts::heapSort, Sorts::quickSort);
+        for (Consumer<long[]> sort : longSorts) {
+            long[] arr = longs.clone();
+            sort.accept(arr);
+            assertArrayEquals(expectedLongs, arr);
+        }
+        List<Consumer<double[]>> doubleSorts =
+                List.of(Sorts::insertionSort, Sorts::mergeSort, Sorts::heapSort, Sorts::quickSort);
+        for (Consumer<double[]> sort : doubleSorts) {
+            double[] arr = doubles.clone();
+            sort.accept(arr);
+            assertArrayEquals(expectedDoubles, arr);
+        }
+        List<Consumer<float[]>> floatSorts =
+                List.of(Sorts::insertionSort, Sorts::mergeSort, Sorts::heapSort, Sorts::quickSort);
+        for (Consumer<float[]> sort : floatSorts) {
+            float[] arr = floats.clone();
+            sort.accept(arr);
+            assertArrayEquals(expectedFloats, arr);
+        }
+    }
 }
\ No newline at end of file
@@ -2,6 +2,7 @@ package lesson1
 
 import org.junit.jupiter.api.Tag
 import kotlin.test.Test
+import kotlin.test.assertFailsWith
 
 class TaskTestsJava : AbstractTaskTests() {
 
@@ -11,18 +12,51 @@ class TaskTestsJava : AbstractTaskTests() {
         sortTimes { inputName, outputName -> JavaTasks.sortTimes(inputName, outputName) }
     }
 
+    @Test
+    @Tag("3")
+    fun testCalendarSortTimesJava() {
+        sortTimes { inputName, outputName -> JavaTasks.calendarSortTimes(inputName, outputName) }
+    }
+
     @Test
     @Tag("4")
     fun testSortAddressesJava() {
         sortAddresses { inputName, outputName -> JavaTasks.sortAddresses(inputName, outputName) }
     }
 
+    @Test
+    @Tag("4")
+    fun testExternalSortAddressesJava() {
+        sortAddresses { inputName, outputName -> JavaTasks.externalSortAddresses(inputName, outputName, 256) }
+        assertFailsWith<IllegalArgumentException> {
+            JavaTasks.externalSortAddresses("input/addr_in1.txt", "temp.txt", 0)
+        }
+    }
+
+    @Test
+    @Tag("4")
+    fun testDictionarySortAddressesJava() {
+        sortAddresses { inputName, outputName -> JavaTasks.dictionarySortAddresses(inputName, outputName) }
+    }
+
     @Test
     @Tag("4")
     fun testSortTemperaturesJava() {
         sortTemperatures { inputName, outputName -> JavaTasks.sortTemperatures(inputName, outputName) }
     }
 
+    @Test
+    @Tag("4")
+    fun testFastestSortTemperaturesJava() {
+        sortTemperatures { inputName, outputName -> JavaTasks.fastestSortTemperatures(inputName, outputName) }
+    }
+
+    @Test
+    @Tag("4")
+    fun testParallelSortTemperaturesJava() {
+        sortTemperatures { inputName, outputName -> JavaTasks.parallelSortTemperatures(inputName, outputName) }
+    }
+
     @Test
     @Tag("4")
     fun testSortSequenceJava() {
@@ -34,4 +68,10 @@ class TaskTestsJava : AbstractTaskTests() {
     fun testMergeArraysJava() {
         mergeArrays { first, second -> JavaTasks.mergeArrays<Int?>(first, second) }
     }
+
+    @Test
+    @Tag("2")
+    fun testParallelMergeArraysJava() {
+        mergeArrays { first, second -> JavaTasks.parallelMergeArrays<Int?>(first, second) }
+    }
 }
@@ -1,7 +1,14 @@
 package lesson2
 
 import org.junit.jupiter.api.Tag
+import java.io.IOException
+import java.nio.file.Files
+import java.util.Random
 import kotlin.test.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertFailsWith
+import kotlin.test.assertFalse
+import kotlin.test.assertTrue
 
 class AlgorithmsTestsJava : AbstractAlgorithmsTests() {
     @Test
@@ -22,9 +29,130 @@ class AlgorithmsTestsJava : AbstractAlgorithmsTests() {
         longestCommonSubstring { first, second -> JavaAlgorithms.longestCommonSubstring(first, second) }
     }
 
+    @Test
+    @Tag("4")
+    fun testBinarySearchLongestCommonSubstringJava() {
+        longestCommonSubstring { first, second -> JavaAlgorithms.binarySearchLongestCommonSubstring(first, second) }
+    }
+
+    @Test
+    @Tag("4")
+    fun testRollingHashLongestCommonSubstringJava() {
+        longestCommonSubstring { first, second -> JavaAlgorithms.rollingHashLongestCommonSubstring(first, second) }
+    }
+
+    @Test
+    @Tag("4")
+    fun testLongestCommonSubstringOfManyJava() {
+        longestCommonSubstring { first, second -> JavaAlgorithms.longestCommonSubstring(listOf(first, second)) }
+        assertEquals("", JavaAlgorithms.longestCommonSubstring(listOf()))
+        assertEquals("ВАТОР", JavaAlgorithms.longestCommonSubstring(listOf("ОБСЕРВАТОРИЯ", "КОНСЕРВАТОРЫ", "ВАТОРА")))
+        assertEquals("", JavaAlgorithms.longestCommonSubstring(listOf("абв", "где", "бвг")))
+
+        val index = CommonSubstringIndex(listOf("ОБСЕРВАТОРИЯ", "КОНСЕРВАТОРЫ", "ВАТОРА", "ОРИЯ"))
+        assertEquals("СЕРВАТОР", index.longestCommonSubstring(2))
+        assertEquals("ВАТОР", index.longestCommonSubstring(3))
+        assertEquals("ОР", index.longestCommonSubstring())
+        assertEquals("ОБСЕРВАТОРИЯ", index.longestCommonSubstring(1))
+        assertEquals("ОРИЯ", index.longestCommonSubstring(0, 3))
+        assertEquals("ВАТОР", index.longestCommonSubstring(2, 0))
+        val pairwise = index.pairwiseLongestCommonSubstrings()
+        for (i in 0 until index.size()) {
+            for (j in 0 until index.size()) {
+                assertEquals(if (i == j) pairwise[i][i] else index.longestCommonSubstring(i, j), pairwise[i][j])
+            }
+        }
+        assertEquals("СЕРВАТОР", pairwise[1][0])
+        assertFailsWith<IllegalArgumentException> { index.longestCommonSubstring(5) }
+    }
+
     @Test
     @Tag("3")
     fun testCalcPrimesNumberJava() {
         calcPrimesNumber { JavaAlgorithms.calcPrimesNumber(it) }
     }
+
+    @Test
+    @Tag("3")
+    fun testSimpleSieveCalcPrimesNumberJava() {
+        calcPrimesNumber { JavaAlgorithms.simpleSieveCalcPrimesNumber(it) }
+    }
+
+    @Test
+    @Tag("3")
+    fun testSegmentedSieveCalcPrimesNumberJava() {
+        calcPrimesNumber { JavaAlgorithms.segmentedSieveCalcPrimesNumber(it) }
+        for (limit in listOf(4194303, 4194304, 4194305, 8388609, 12345677)) {
+            assertEquals(JavaAlgorithms.simpleSieveCalcPrimesNumber(limit), JavaAlgorithms.segmentedSieveCalcPrimesNumber(limit))
+        }
+        assertEquals(50847534, JavaAlgorithms.segmentedSieveCalcPrimesNumber(1000000000))
+        assertEquals(105097565, JavaAlgorithms.segmentedSieveCalcPrimesNumber(Int.MAX_VALUE))
+    }
+
+    @Test
+    @Tag("3")
+    fun testLongCalcPrimesNumberJava() {
+        calcPrimesNumber { JavaAlgorithms.calcPrimesNumber(it.toLong()).toInt() }
+        val random = Random(42)
+        for (limit in listOf(65535, 65536, 65537, 1 shl 20) + List(50) { random.nextInt(50000000) }) {
+            assertEquals(JavaAlgorithms.segmentedSieveCalcPrimesNumber(limit).toLong(), JavaAlgorithms.calcPrimesNumber(limit.toLong()))
+        }
+        assertEquals(105097565L, JavaAlgorithms.calcPrimesNumber(Int.MAX_VALUE.toLong()))
+        assertEquals(189961812L, JavaAlgorithms.calcPrimesNumber(4000000000L))
+        assertEquals(455052511L, JavaAlgorithms.calcPrimesNumber(10000000000L))
+        assertEquals(37607912018L, JavaAlgorithms.calcPrimesNumber(1000000000000L))
+
+        assertEquals(3037000499L, PrimeSieve.sqrt(3037000499L * 3037000499L))
+        assertEquals(3037000499L, PrimeSieve.sqrt(Long.MAX_VALUE))
+        assertEquals(346065536839L, JavaAlgorithms.calcPrimesNumber(JavaAlgorithms.MAX_PRIME_COUNT_LIMIT))
+        assertFailsWith<IllegalArgumentException> {
+            JavaAlgorithms.calcPrimesNumber(JavaAlgorithms.MAX_PRIME_COUNT_LIMIT + 1)
+        }
+        assertFailsWith<IllegalArgumentException> { JavaAlgorithms.calcPrimesNumber(3037000499L * 3037000499L) }
+        assertFailsWith<IllegalArgumentException> { JavaAlgorithms.calcPrimesNumber(Long.MAX_VALUE) }
+    }
+
+    @Test
+    @Tag("3")
+    fun testTableCalcPrimesNumberJava() {
+        calcPrimesNumber { JavaAlgorithms.tableCalcPrimesNumber(it) }
+    }
+
+    @Test
+    @Tag("3")
+    fun testPrimeTablePersistence() {
+        val file = Files.createTempFile("primes", ".table")
+        try {
+            val table = PrimeTable(1000000)
+            assertEquals(78498, table.countPrimes(1000000))
+            assertTrue(table.isPrime(999983))
+            assertFalse(table.isPrime(999981))
+            table.save(file)
+
+            val loaded = PrimeTable.load(file)
+            assertEquals(table.limit(), loaded.limit())
+            val random = Random(42)
+            for (limit in List(1000) { random.nextInt(table.limit() + 1) }) {
+                assertEquals(JavaAlgorithms.segmentedSieveCalcPrimesNumber(limit), loaded.countPrimes(limit))
+            }
+            assertEquals(664579, loaded.countPrimes(10000000))
+            assertTrue(loaded.limit() >= 10000000)
+            loaded.save(file)
+            assertEquals(664579, PrimeTable.load(file).countPrimes(10000000))
+
+            // сохранение отображённой таблицы в её же файл
+            PrimeTable(100000).save(file)
+            val mapped = PrimeTable.load(file)
+            mapped.save(file)
+            assertEquals(9592, mapped.countPrimes(99999))
+            val reloaded = PrimeTable.load(file)
+            assertEquals(mapped.limit(), reloaded.limit())
+            assertEquals(9592, reloaded.countPrimes(99999))
+
+            Files.write(file, byteArrayOf(1, 2, 3))
+            assertFailsWith<IOException> { PrimeTable.load(file) }
+        } finally {
+            Files.delete(file)
+        }
+    }
 }
\ No newline at end of file